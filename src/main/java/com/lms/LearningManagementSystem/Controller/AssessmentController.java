@@ -16,11 +16,13 @@ public class AssessmentController {
     private static final String TITLE_KEY = "title";
     private static final String TOTAL_MARKS_KEY = "totalMarks";
     private static final String NUM_QUESTIONS_KEY = "num";
+    private static final String PER_STUDENT_KEY = "perStudent";
     private static final String ANSWERS_KEY = "answers";
     private static final String DESCRIPTION_KEY = "description";
     private static final String FILE_NAME_KEY = "fileName";
     private static final String MARKS_KEY = "marks";
     private static final String FEEDBACK_KEY = "feedback";
+    private static final String ASSIGNMENT_ID_KEY = "assignmentId";
 
     @PostMapping("/{InstructorId}/quiz")
     public ResponseEntity<Object> createQuiz(@PathVariable Long InstructorId, @RequestBody Map<String, Object> payload) {
@@ -28,8 +30,20 @@ public class AssessmentController {
             String title = (String) payload.get(TITLE_KEY);
             int totalMarks = (int) payload.get(TOTAL_MARKS_KEY);
             int num = (int) payload.get(NUM_QUESTIONS_KEY);
+            boolean perStudent = Boolean.TRUE.equals(payload.get(PER_STUDENT_KEY));
 
-            Quiz quiz = InstructorService.createQuiz(InstructorId, title, num, totalMarks);
+            Quiz quiz = InstructorService.createQuiz(InstructorId, title, num, totalMarks, perStudent);
+            return new ResponseEntity<>(quiz, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Sections like {"tag": "loops", "difficulty": "EASY", "count": 5} or {"tag": "oop", "mix": {"EASY": 1, "HARD": 3}, "count": 4}
+    @PostMapping("/{InstructorId}/quiz/blueprint")
+    public ResponseEntity<Object> createQuizFromBlueprint(@PathVariable Long InstructorId, @RequestBody QuizBlueprint blueprint) {
+        try {
+            Quiz quiz = InstructorService.createQuiz(InstructorId, blueprint);
             return new ResponseEntity<>(quiz, HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -45,11 +59,11 @@ public class AssessmentController {
                 return new ResponseEntity<>("Quiz not found", HttpStatus.NOT_FOUND); // Return 404 if quiz not found
             }
             Long studentId = ((Number) payload.get(STUDENT_ID_KEY)).longValue();
-            Map<String, String> submission = (Map<String, String>) payload.get(ANSWERS_KEY);
+            Map<String, ?> submission = (Map<String, ?>) payload.get(ANSWERS_KEY); // answers may arrive as numbers
 
             // Process submission
             StudentService.SubmitQuiz(studentId, quizId, submission);
-            int correctAnswersCount = InstructorService.correctAnswersCount(quizId, studentId);
+            int correctAnswersCount = StudentService.checkQuizAnswers(studentId, quizId);
             return new ResponseEntity<>("You got " + correctAnswersCount + " correct answers!", HttpStatus.OK);
         }
         catch (IllegalArgumentException e) {
@@ -58,6 +72,30 @@ public class AssessmentController {
         }
     }
 
+    // Closes the quiz to submissions and starts grading them; poll the run for progress
+    @PostMapping("/{InstructorId}/quiz/{quizId}/close")
+    public ResponseEntity<Object> closeQuiz(@PathVariable Long InstructorId, @PathVariable Long quizId) {
+        try {
+            GradingRun run = InstructorService.closeQuiz(InstructorId, quizId);
+            return new ResponseEntity<>(run, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{InstructorId}/quiz/{quizId}/grading")
+    public ResponseEntity<Object> getGradingRun(@PathVariable Long InstructorId, @PathVariable Long quizId) {
+        try {
+            GradingRun run = InstructorService.getGradingRun(InstructorId, quizId);
+            if (run == null) {
+                return new ResponseEntity<>(Map.of("error", "Quiz has not been closed."), HttpStatus.NOT_FOUND);
+            }
+            return ResponseEntity.ok(run);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Add Question to Quiz
     @PostMapping("/{InstructorId}/create/questions")
     public ResponseEntity<String> addQuestions( @PathVariable Long InstructorId,@RequestBody List<Question> questions) {
@@ -75,13 +113,18 @@ public class AssessmentController {
         }
     }
 
+    // With studentId, a per-student quiz comes back as that student's draw
     @GetMapping("/quiz/{id}")
-    public ResponseEntity<Quiz> getQuizById(@PathVariable Long id) {
-        Quiz quiz = StudentService.findQuizById(id);
-        if (quiz == null) {
-            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND); // Return 404 if no quiz is found
+    public ResponseEntity<Object> getQuizById(@PathVariable Long id, @RequestParam(required = false) Long studentId) {
+        try {
+            Quiz quiz = StudentService.findQuizFor(id, studentId);
+            if (quiz == null) {
+                return new ResponseEntity<>(null, HttpStatus.NOT_FOUND); // Return 404 if no quiz is found
+            }
+            return new ResponseEntity<>(quiz, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-        return new ResponseEntity<>(quiz, HttpStatus.OK);
     }
 
     @GetMapping("/{InstructorId}/questions")
@@ -186,8 +229,13 @@ public class AssessmentController {
             if (feedback == null || feedback.isEmpty()) {
                 return new ResponseEntity<>("Feedback must be provided.", HttpStatus.BAD_REQUEST);
             }
-            // Grade the assignment
-            InstructorService.gradeAssignment(InstructorId, studentId, "Assignment", marks, feedback);
+            // Grade the assignment; with its id, the grading can be looked up by assignment
+            if (payload.get(ASSIGNMENT_ID_KEY) != null) {
+                Long assignmentId = ((Number) payload.get(ASSIGNMENT_ID_KEY)).longValue();
+                InstructorService.gradeAssignment(InstructorId, assignmentId, studentId, marks, feedback);
+            } else {
+                InstructorService.gradeAssignment(InstructorId, studentId, "Assignment", marks, feedback);
+            }
             return new ResponseEntity<>("Assignment graded successfully!", HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             // Handle known validation errors
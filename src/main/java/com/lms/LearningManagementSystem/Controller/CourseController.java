@@ -1,6 +1,8 @@
 package com.lms.LearningManagementSystem.Controller;
+import com.lms.LearningManagementSystem.Model.AttendanceMatrix;
 import com.lms.LearningManagementSystem.Model.Course;
 import com.lms.LearningManagementSystem.Model.Lesson;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
 import com.lms.LearningManagementSystem.Service.CourseService;
 import com.lms.LearningManagementSystem.Service.UserService.AdminService;
 import org.springframework.http.HttpStatus;
@@ -24,6 +26,9 @@ public class CourseController {
     private static final String MEDIA_ADD_SUCCESS = "Media file added successfully.";
     private static final String MEDIA_ADD_FAILURE = "Failed to add media file.";
     private static final String COURSE_DELETED = "Course deleted successfully.";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String DELIVERY_HEADER = "X-Notification-Delivery";
 
     private final CourseService courseService;
 
@@ -56,8 +61,11 @@ public class CourseController {
             @RequestParam String description,
             @RequestParam int duration) {
         try {
-            Course updatedCourse = AdminService.updateCourse(AdminId ,courseId, title, description, duration);
-            return ResponseEntity.ok(updatedCourse);
+            CourseService.CourseUpdate update = AdminService.updateCourse(AdminId ,courseId, title, description, duration);
+            if (update == null) {
+                return ResponseEntity.ok().build();
+            }
+            return withDelivery(ResponseEntity.ok(), update.delivery()).body(update.course());
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(ADMIN_ERROR_MESSAGE, HttpStatus.BAD_REQUEST);
         }
@@ -67,8 +75,8 @@ public class CourseController {
     @DeleteMapping("/{adminId}/{courseId}/delete")
     public ResponseEntity<String> deleteCourse(@PathVariable String courseId, @PathVariable Long adminId) {
         try {
-            AdminService.deleteCourse(adminId, courseId);
-            return ResponseEntity.ok(COURSE_DELETED);
+            NotificationDelivery delivery = AdminService.deleteCourse(adminId, courseId);
+            return withDelivery(ResponseEntity.ok(), delivery).body(COURSE_DELETED);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Operation failed: " + e.getMessage());
         }
@@ -99,6 +107,38 @@ public class CourseController {
         }
     }
 
+    // Attendance of every student across every lesson of the course
+    @GetMapping("/{courseId}/attendance")
+    public ResponseEntity<Object> getAttendanceMatrix(@PathVariable String courseId) {
+        try {
+            AttendanceMatrix matrix = courseService.getAttendanceMatrix(courseId);
+            return ResponseEntity.ok(matrix);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    // Students attending less than the given percentage of lessons
+    @GetMapping("/{courseId}/attendance/below")
+    public ResponseEntity<Object> getStudentsBelowAttendance(@PathVariable String courseId,
+                                                             @RequestParam double threshold) {
+        try {
+            return ResponseEntity.ok(courseService.getStudentsBelowAttendance(courseId, threshold));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{courseId}/attendance/{studentId}")
+    public ResponseEntity<Object> getAttendanceRate(@PathVariable String courseId, @PathVariable Long studentId) {
+        try {
+            double rate = courseService.getAttendanceRate(courseId, studentId);
+            return ResponseEntity.ok(Map.of("studentId", studentId, "attendanceRate", rate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
     // View all courses
     @GetMapping
     public List<Course> getAllCourses() {
@@ -111,6 +151,16 @@ public class CourseController {
         return courseService.getEnrolledStudents(courseId);
     }
 
+    // Students enrolled in both courses
+    @GetMapping("/{courseId}/students/shared/{otherCourseId}")
+    public ResponseEntity<Object> getSharedStudents(@PathVariable String courseId, @PathVariable String otherCourseId) {
+        try {
+            return ResponseEntity.ok(courseService.getSharedStudents(courseId, otherCourseId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
     @GetMapping("/{courseId}")
     public Course getCourseById(@PathVariable String courseId) {
         Course course = courseService.findCourseById(courseId);
@@ -145,9 +195,41 @@ public class CourseController {
         }
     }
 
+    // Courses a student is enrolled in
+    @GetMapping("/{studentId}/enrolled")
+    public List<Course> getCoursesForStudent(@PathVariable Long studentId) {
+        return courseService.getCoursesForStudent(studentId);
+    }
+
+    // Courses an instructor teaches
+    @GetMapping("/{instructorId}/teaching")
+    public List<Course> getCoursesForInstructor(@PathVariable Long instructorId) {
+        return courseService.getCoursesForInstructor(instructorId);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<Course>> searchCourses(@RequestParam String keyword) {
-        List<Course> results = courseService.searchCourses(keyword);
+    public ResponseEntity<List<Course>> searchCourses(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Course> results = courseService.searchCourses(keyword, page, size);
         return ResponseEntity.ok(results);
     }
+
+    // Suggestions for the catalogue search box, one request per keystroke
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<String>> suggestCourses(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(courseService.suggestCourses(prefix, limit));
+    }
+
+    // Student notifications go out asynchronously; expose the handle so callers can follow delivery
+    private ResponseEntity.BodyBuilder withDelivery(ResponseEntity.BodyBuilder response, NotificationDelivery delivery) {
+        return delivery != null ? response.header(DELIVERY_HEADER, delivery.getId()) : response;
+    }
 }
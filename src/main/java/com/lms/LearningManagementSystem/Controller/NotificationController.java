@@ -1,10 +1,14 @@
 package com.lms.LearningManagementSystem.Controller;
 
 import com.lms.LearningManagementSystem.Model.Notification;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
 import com.lms.LearningManagementSystem.Service.NotificationService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -12,15 +16,104 @@ import java.util.Map;
 @RestController
 @RequestMapping("/notifications")
 public class NotificationController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final NotificationService notificationService;
 
     public NotificationController(NotificationService notificationService) {
         this.notificationService = notificationService;
     }
 
+    // Queue depth and delivery lag of the asynchronous fan-out pipeline
+    @GetMapping("/metrics")
+    public Map<String, Object> getDeliveryMetrics() {
+        return notificationService.getDeliveryMetrics();
+    }
+
+    @GetMapping("/deliveries/{deliveryId}")
+    public ResponseEntity<Object> getDelivery(@PathVariable String deliveryId) {
+        NotificationDelivery delivery = notificationService.getDelivery(deliveryId);
+        if (delivery == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Delivery not found."));
+        }
+        return ResponseEntity.ok(delivery);
+    }
+
+    // Without limit the whole feed is returned; with it, pass the X-Next-Cursor header back as after
     @GetMapping("/{userId}")
-    public List<Notification> getNotifications(@PathVariable Long userId, @RequestParam(defaultValue = "false") boolean onlyUnread) {
-        return notificationService.getNotifications(userId, onlyUnread);
+    public ResponseEntity<List<Notification>> getNotifications(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean onlyUnread,
+            @RequestParam(defaultValue = "-1") long after,
+            @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            return ResponseEntity.ok(notificationService.getNotifications(userId, onlyUnread, after, Integer.MAX_VALUE));
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Notification> page = notificationService.getNotifications(userId, onlyUnread, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, page.get(page.size() - 1).getId());
+        }
+        return response.body(page);
+    }
+
+    // Badge count: cheaper than fetching the unread list
+    @GetMapping("/{userId}/unread-count")
+    public ResponseEntity<Object> getUnreadCount(@PathVariable Long userId) {
+        int unread = notificationService.getUnreadCount(userId);
+        if (unread < 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found."));
+        }
+        return ResponseEntity.ok(Map.of("unread", unread));
+    }
+
+    // Push stream of new notifications; reconnecting clients resume from the Last-Event-ID header (or lastEventId)
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        try {
+            return ResponseEntity.ok(notificationService.openStream(userId,
+                    lastEventIdHeader != null ? lastEventIdHeader : lastEventId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Bulk mark-read: body is a JSON array of notification ids
+    @PostMapping("/{userId}/read")
+    public ResponseEntity<Object> markNotificationsAsRead(@PathVariable Long userId, @RequestBody List<String> notificationIds) {
+        int marked = notificationService.markNotificationsAsRead(userId, notificationIds);
+        if (marked < 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found."));
+        }
+        return ResponseEntity.ok(Map.of("marked", marked));
+    }
+
+    // Everything up to and including the cursor (or everything so far) becomes read
+    @PostMapping("/{userId}/read-all")
+    public ResponseEntity<Object> markAllAsRead(@PathVariable Long userId, @RequestParam(required = false) Long upTo) {
+        try {
+            return ResponseEntity.ok(Map.of("readUpTo", notificationService.markAllAsRead(userId, upTo)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Opt in to (or out of) one digest notification per interval instead of individual ones
+    @PostMapping("/{userId}/digest")
+    public ResponseEntity<Object> setDigest(@PathVariable Long userId, @RequestParam boolean enabled) {
+        try {
+            notificationService.setDigest(userId, enabled);
+            return ResponseEntity.ok(Map.of("digest", enabled));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping("/{userId}/{notificationId}/read")
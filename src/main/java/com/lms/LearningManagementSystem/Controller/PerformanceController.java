@@ -75,4 +75,19 @@ public class PerformanceController {
         }
     }
 
+    // Every grading of one assessment; type is "quiz" or "Assignment"
+    @GetMapping("/{InstructorId}/{type}/{assessmentId}/gradings")
+    public ResponseEntity<?> getAssessmentGradings(@PathVariable Long InstructorId, @PathVariable String type,
+                                                   @PathVariable Long assessmentId) {
+        try {
+            List<Grading> gradings = InstructorService.findGradings(InstructorId, GradingType.of(type), assessmentId);
+            if (gradings.isEmpty()) {
+                return new ResponseEntity<>("No gradings found for the given assessment.", HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(gradings, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
 }
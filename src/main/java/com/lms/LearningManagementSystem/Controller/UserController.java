@@ -1,36 +1,73 @@
 package com.lms.LearningManagementSystem.Controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
 import com.lms.LearningManagementSystem.Model.User.LoginRequest;
 import com.lms.LearningManagementSystem.Model.User.User;
+import com.lms.LearningManagementSystem.Model.User.UserFields;
+import com.lms.LearningManagementSystem.Model.User.UserSummary;
+import com.lms.LearningManagementSystem.Security.SessionTokenFilter;
+import com.lms.LearningManagementSystem.Security.SessionTokens;
 import com.lms.LearningManagementSystem.Service.UserService.InstructorService;
 import com.lms.LearningManagementSystem.Service.UserService.StudentService;
+import com.lms.LearningManagementSystem.Service.UserService.UserImporter;
 import com.lms.LearningManagementSystem.Service.UserService.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String SESSION_TOKEN_HEADER = "X-Session-Token";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @Autowired
     private UserService userService; // Use the interface instead of the implementation
 
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private SessionTokens sessionTokens;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/login")
     public ResponseEntity<String> loginUser(@RequestBody LoginRequest loginRequest) {
         User authenticatedUser = userService.authenticate(loginRequest.getEmail(), loginRequest.getPassword());
         if (authenticatedUser != null) {
-            return new ResponseEntity<>("Login successful for user: " + authenticatedUser.getName(), HttpStatus.OK);
+            // Sent back as "Authorization: Bearer <token>" on later requests
+            return ResponseEntity.ok()
+                    .header(SESSION_TOKEN_HEADER, sessionTokens.issue(authenticatedUser))
+                    .body("Login successful for user: " + authenticatedUser.getName());
         } else {
             return new ResponseEntity<>("Invalid email or password", HttpStatus.UNAUTHORIZED);
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Object> logoutUser(HttpServletRequest request) {
+        if (!sessionTokens.revoke(SessionTokenFilter.bearerToken(request))) {
+            return new ResponseEntity<>(Map.of("error", "No valid session token."), HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
     @PostMapping("/register")
     public ResponseEntity<Object> registerUser(@RequestBody User user) {
         try {
@@ -41,39 +78,94 @@ public class UserController {
         }
     }
 
+    // Bulk registration from a CSV (with a header row) or NDJSON upload; answers with one NDJSON line per row
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImporter.Format format = UserImporter.Format.of(request.getContentType());
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer report = response.getWriter();
+        try {
+            userImporter.importUsers(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), format, report);
+        } catch (IllegalArgumentException e) {
+            // Only a bad header gets here, before any row has been reported
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            report.write(objectMapper.writeValueAsString(Map.of("error", e.getMessage())));
+            report.write('\n');
+        }
+    }
 
+    // Summaries by default; ?fields=id,name,... picks the fields, including bookmarkedCourses
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<Object> getAllUsers(@RequestParam(required = false) String fields) {
+        try {
+            return ResponseEntity.ok(renderLazily(userService.getAllUsers(), fields));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}")
-    public User getUserById(@PathVariable Long id) {
-        return userService.getUserById(id);
+    public ResponseEntity<Object> getUserById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        try {
+            List<String> projection = fields == null ? null : UserFields.parse(fields);
+            User user = userService.getUserById(id);
+            if (user == null) {
+                return new ResponseEntity<>(Map.of("error", "User not found."), HttpStatus.NOT_FOUND);
+            }
+            return ResponseEntity.ok(projection == null ? UserSummary.from(user) : UserFields.project(user, projection));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @PutMapping("/{id}")
-    public User updateUser(@RequestBody User updateUser, @PathVariable Long id) {
-        return userService.updateUser(updateUser, id);
+    public ResponseEntity<Object> updateUser(@RequestBody User updateUser, @PathVariable Long id) {
+        try {
+            User existing = userService.getUserById(id);
+            String previousRole = existing == null ? null : existing.getRole();
+            User updated = userService.updateUser(updateUser, id);
+            if (updated != null && !String.valueOf(previousRole).equalsIgnoreCase(String.valueOf(updated.getRole()))) {
+                sessionTokens.revokeUser(id); // issued tokens still carry the old role
+            }
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.CONFLICT);
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteUser(@PathVariable Long id) {
         try {
             userService.deleteUser(id);
+            sessionTokens.revokeUser(id);
             return new ResponseEntity<>(Map.of("message", "User deleted successfully"), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.NOT_FOUND);
         }
     }
 
+    // Deep pages: pass the X-Next-Cursor header back as after instead of a page number
     @GetMapping("/list")
-    public ResponseEntity<List<User>> listUsers(
-            @RequestParam(required = false) String role) {
+    public ResponseEntity<List<?>> listUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) String fields) {
 
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
         try {
-            ArrayList<User> filteredUsers = userService.listUsers(role);
-            return new ResponseEntity<>(filteredUsers, HttpStatus.OK);
+            List<User> filteredUsers = after != null
+                    ? userService.listUsersAfter(role, after, size)
+                    : userService.listUsers(role, page, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (filteredUsers.size() == size) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(filteredUsers.get(size - 1).getId()));
+            }
+            return response.body(render(filteredUsers, fields));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
@@ -98,8 +190,12 @@ public class UserController {
             @PathVariable Long instructorId,
             @PathVariable String courseId) {
         try {
-            InstructorService.assignInstructorToCourse(instructorId, courseId);
-            return new ResponseEntity<>("Instructor successfully assigned to the course.", HttpStatus.OK);
+            NotificationDelivery delivery = InstructorService.assignInstructorToCourse(instructorId, courseId);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (delivery != null) {
+                response.header("X-Notification-Delivery", delivery.getId());
+            }
+            return response.body("Instructor successfully assigned to the course.");
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>("Operation failed: You are not an Instructor.", HttpStatus.BAD_REQUEST);
         }
@@ -119,6 +215,23 @@ public class UserController {
         }
     }
 
+    // Instructor display polls for the current code, which rotates while check-in is open
+    @GetMapping("/current-otp/{instructorId}/{courseId}/{lessonId}")
+    public ResponseEntity<String> getCurrentOtpForLesson(
+            @PathVariable Long instructorId,
+            @PathVariable String courseId,
+            @PathVariable String lessonId) {
+        try {
+            String otp = InstructorService.getCurrentOtpForLesson(instructorId, courseId, lessonId);
+            if (otp == null) {
+                return new ResponseEntity<>("No open check-in for this lesson.", HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(otp, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>("Operation failed: You are not an Instructor.", HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // Student enters OTP to mark attendance
     @PostMapping("/mark-attendance/{studentId}/{courseId}/{lessonId}")
     public ResponseEntity<String> markAttendance(@PathVariable Long studentId, @PathVariable String courseId, @PathVariable String lessonId,
@@ -135,4 +248,23 @@ public class UserController {
         }
 
     }
+
+    private static List<?> render(Collection<User> users, String fields) {
+        return users.stream().map(view(fields)).toList();
+    }
+
+    // Mapped as Jackson writes it, one user at a time, so listing everyone never copies the store
+    private static Iterable<Object> renderLazily(Collection<User> users, String fields) {
+        Function<User, Object> view = view(fields);
+        return () -> users.stream().map(view).iterator();
+    }
+
+    // Parses fields up front, so a bad projection is a 400 before anything is written
+    private static Function<User, Object> view(String fields) {
+        if (fields == null) {
+            return UserSummary::from;
+        }
+        List<String> projection = UserFields.parse(fields);
+        return user -> UserFields.project(user, projection);
+    }
 }
@@ -0,0 +1,169 @@
+package com.lms.LearningManagementSystem.Model.Assessment;
+
+import java.util.*;
+
+/**
+ * A quiz's answers, compiled once when the quiz is created. Each question of the quiz gets a slot,
+ * and each accepted answer of a slot a small choice index, so a submission can be encoded as one
+ * byte per question and graded in a single pass over that array with no lookups or parsing. Points
+ * per choice are precomputed from the question's weight and partial credit.
+ * <p>
+ * A key can also be a selection of another key's slots, for quizzes that draw per student: the
+ * bank is compiled once and each student's key shares its choice tables, adding only the few
+ * arrays that say which questions the student got.
+ */
+public final class AnswerKey {
+
+    public static final byte UNANSWERED = -1;
+
+    private final Map<Long, Integer> slotByQuestionId; // of the compiled key a selection reads from
+    // Selections only: the compiled slots in order, and the slot each one has in this key
+    private final int[] sortedSourceSlots;
+    private final int[] slotBySorted;
+    private final long[] questionIds;
+    private final List<Map<String, Integer>> choiceBySlot;
+    private final double[][] pointsByChoice;
+    private final double maxScore;
+
+    // Questions must be the bank originals, with their answers
+    public AnswerKey(List<Question> questions) {
+        int size = questions.size();
+        this.slotByQuestionId = new HashMap<>(size * 2);
+        this.sortedSourceSlots = null;
+        this.slotBySorted = null;
+        this.questionIds = new long[size];
+        this.choiceBySlot = new ArrayList<>(size);
+        this.pointsByChoice = new double[size][];
+        double max = 0;
+        for (int slot = 0; slot < size; slot++) {
+            Question question = questions.get(slot);
+            questionIds[slot] = question.getId();
+            slotByQuestionId.put(question.getId(), slot);
+
+            // The correct answer is always choice 0, then the answers that earn partial credit
+            Map<String, Integer> choices = new HashMap<>();
+            List<Double> points = new ArrayList<>();
+            choices.put(question.getCorrectAnswer(), 0);
+            points.add((double) question.getWeight());
+            if (question.getPartialCredit() != null) {
+                for (Map.Entry<String, Double> credit : question.getPartialCredit().entrySet()) {
+                    if (choices.putIfAbsent(credit.getKey(), points.size()) == null) {
+                        points.add(question.getWeight() * credit.getValue());
+                    }
+                }
+            }
+            if (points.size() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Question " + question.getId() + " has too many graded answers.");
+            }
+            choiceBySlot.add(choices);
+            pointsByChoice[slot] = points.stream().mapToDouble(Double::doubleValue).toArray();
+            max += question.getWeight();
+        }
+        this.maxScore = max;
+    }
+
+    private AnswerKey(AnswerKey source, int[] slots) {
+        int size = slots.length;
+        this.slotByQuestionId = source.slotByQuestionId;
+        this.questionIds = new long[size];
+        this.choiceBySlot = new ArrayList<>(size);
+        this.pointsByChoice = new double[size][];
+        long[] bySourceSlot = new long[size];
+        double max = 0;
+        for (int slot = 0; slot < size; slot++) {
+            int sourceSlot = slots[slot];
+            questionIds[slot] = source.questionIds[sourceSlot];
+            choiceBySlot.add(source.choiceBySlot.get(sourceSlot));
+            pointsByChoice[slot] = source.pointsByChoice[sourceSlot];
+            max += pointsByChoice[slot][0];
+            bySourceSlot[slot] = (long) sourceSlot << 32 | slot;
+        }
+        Arrays.sort(bySourceSlot);
+        this.sortedSourceSlots = new int[size];
+        this.slotBySorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedSourceSlots[i] = (int) (bySourceSlot[i] >>> 32);
+            slotBySorted[i] = (int) bySourceSlot[i];
+        }
+        this.maxScore = max;
+    }
+
+    /**
+     * A key over the given slots of this compiled key, in that order. Choice tables are shared
+     * rather than copied, so a selection costs a handful of arrays the length of the quiz.
+     */
+    public AnswerKey select(int[] slots) {
+        if (sortedSourceSlots != null) {
+            throw new IllegalStateException("Selections are made from a compiled key.");
+        }
+        return new AnswerKey(this, slots);
+    }
+
+    // The slot of the question in this key, or -1 when it is not part of it
+    public int slotOf(long questionId) {
+        Integer slot = slotByQuestionId.get(questionId);
+        if (slot == null || sortedSourceSlots == null) {
+            return slot == null ? -1 : slot;
+        }
+        int index = Arrays.binarySearch(sortedSourceSlots, slot);
+        return index < 0 ? -1 : slotBySorted[index];
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public double getMaxScore() {
+        return maxScore;
+    }
+
+    // The quiz question in the slot
+    public long questionId(int slot) {
+        return questionIds[slot];
+    }
+
+    /**
+     * Encodes answers keyed by question id as one choice per slot. Answers to questions outside the
+     * quiz are ignored; an answer that earns nothing becomes a choice past the graded ones.
+     */
+    public byte[] encode(Map<String, ?> answers) {
+        byte[] chosen = new byte[questionIds.length];
+        Arrays.fill(chosen, UNANSWERED);
+        for (Map.Entry<String, ?> answer : answers.entrySet()) {
+            int slot = slotOf(answer.getKey());
+            if (slot >= 0 && answer.getValue() != null) {
+                Integer choice = choiceBySlot.get(slot).get(answer.getValue().toString());
+                chosen[slot] = (byte) (choice == null ? pointsByChoice[slot].length : choice);
+            }
+        }
+        return chosen;
+    }
+
+    // One pass over the encoded submission
+    public Score grade(byte[] chosen) {
+        int correct = 0;
+        double points = 0;
+        for (int slot = 0; slot < chosen.length; slot++) {
+            int choice = chosen[slot];
+            double[] credit = pointsByChoice[slot];
+            if (choice >= 0 && choice < credit.length) {
+                points += credit[choice];
+                if (choice == 0) {
+                    correct++;
+                }
+            }
+        }
+        return new Score(correct, points, maxScore);
+    }
+
+    public record Score(int correct, double points, double maxPoints) {
+    }
+
+    private int slotOf(String questionId) {
+        try {
+            return slotOf(Long.parseLong(questionId.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
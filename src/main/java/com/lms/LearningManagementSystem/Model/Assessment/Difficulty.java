@@ -0,0 +1,19 @@
+package com.lms.LearningManagementSystem.Model.Assessment;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.Locale;
+
+public enum Difficulty {
+    EASY, MEDIUM, HARD;
+
+    // Accepts "easy", "Easy" or "EASY"
+    @JsonCreator
+    public static Difficulty of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid difficulty. Valid difficulties are EASY, MEDIUM and HARD.");
+        }
+    }
+}
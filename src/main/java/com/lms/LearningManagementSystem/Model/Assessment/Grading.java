@@ -8,11 +8,11 @@ import lombok.Setter;
 public class Grading {
     private Long id;
     private Long studentId;
-    private String type;   // "Quiz" or "Assignment"
+    private GradingType type;
     private String marks;
     private String feedback;
 
-    public Grading(Long id, Long studentId, String type, String marks, String feedback) {
+    public Grading(Long id, Long studentId, GradingType type, String marks, String feedback) {
         this.id = id;
         this.studentId = studentId;
         this.type = type;
@@ -0,0 +1,94 @@
+package com.lms.LearningManagementSystem.Model.Assessment;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle for grading a closed quiz, returned as soon as the quiz closes and updated by the
+ * grading workers as each batch of gradings is written. Once every submission is graded or has
+ * failed, the completion finishes: normally, or exceptionally if any submission failed. A failed
+ * run stays the quiz's run, with status FAILED, until closing the quiz again retries it.
+ */
+@Getter
+public class GradingRun {
+
+    private final Long quizId;
+    private final int submissions;
+    private final long startedAt;
+    private volatile long completedAt;
+    private final AtomicInteger graded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    @JsonIgnore
+    private final AtomicInteger remaining;
+    @JsonIgnore
+    private final Set<Long> failedStudents = ConcurrentHashMap.newKeySet();
+    @JsonIgnore
+    private volatile RuntimeException failure;
+    @JsonIgnore
+    private final CompletableFuture<GradingRun> completion = new CompletableFuture<>();
+
+    public GradingRun(Long quizId, int submissions, long startedAt) {
+        this.quizId = quizId;
+        this.submissions = submissions;
+        this.startedAt = startedAt;
+        this.remaining = new AtomicInteger(submissions);
+        if (submissions == 0) {
+            complete(startedAt);
+        }
+    }
+
+    public int getGraded() {
+        return graded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public boolean isComplete() {
+        return completedAt != 0;
+    }
+
+    // Settled with submissions left ungraded; they are in getFailedStudents()
+    public boolean hasFailed() {
+        return isComplete() && failed.get() > 0;
+    }
+
+    public String getStatus() {
+        return !isComplete() ? "GRADING" : hasFailed() ? "FAILED" : "GRADED";
+    }
+
+    public long getElapsedMillis() {
+        return (isComplete() ? completedAt : System.currentTimeMillis()) - startedAt;
+    }
+
+    /**
+     * Records a batch: how many submissions were graded and which could not be. Returns true when
+     * this settles the run's last submissions; the caller then calls {@link #complete}.
+     */
+    public boolean recordBatch(int gradedCount, Collection<Long> failedStudentIds, RuntimeException cause) {
+        graded.addAndGet(gradedCount);
+        if (!failedStudentIds.isEmpty()) {
+            failedStudents.addAll(failedStudentIds);
+            failed.addAndGet(failedStudentIds.size());
+            failure = cause;
+        }
+        return remaining.addAndGet(-(gradedCount + failedStudentIds.size())) == 0;
+    }
+
+    public void complete(long now) {
+        completedAt = now;
+        if (failed.get() == 0) {
+            completion.complete(this);
+        } else {
+            completion.completeExceptionally(new IllegalStateException(failed.get() + " of " + submissions
+                    + " submissions could not be graded; close the quiz again to retry them.", failure));
+        }
+    }
+}
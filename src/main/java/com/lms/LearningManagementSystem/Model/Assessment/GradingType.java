@@ -0,0 +1,31 @@
+package com.lms.LearningManagementSystem.Model.Assessment;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum GradingType {
+    QUIZ("quiz"),
+    ASSIGNMENT("Assignment");
+
+    private final String label;
+
+    GradingType(String label) {
+        this.label = label;
+    }
+
+    // Serialized as before, so API clients still see "quiz" and "Assignment"
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    @JsonCreator
+    public static GradingType of(String label) {
+        for (GradingType type : values()) {
+            if (type.label.equalsIgnoreCase(label)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid grading type. Valid types are quiz and Assignment.");
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Setter
 @Getter
@@ -13,6 +15,10 @@ public class Question {
     //private String type; // MCQ, True/False, Short Answer
     private List<String> options; // For MCQ
     private String correctAnswer;
+    private int weight = 1; // points for a correct answer
+    private Map<String, Double> partialCredit; // other answers worth a fraction of the weight
+    private Difficulty difficulty = Difficulty.MEDIUM;
+    private Set<String> tags = Set.of(); // topics, matched case-insensitively
 
 
     public Question(Long id, String text, List<String> options, String correctAnswer) {
@@ -14,6 +14,7 @@ public class Quiz {
 
     private List<Question> questions = new ArrayList<>();
     private int totalMarks;
+    private boolean perStudent; // each student draws their own reproducible set of questions
 
     public Quiz(Long id, String title, int totalMarks, List<Question> selectedQuestions) {
         this.id = id;
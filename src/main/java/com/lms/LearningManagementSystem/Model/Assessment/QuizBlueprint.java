@@ -0,0 +1,14 @@
+package com.lms.LearningManagementSystem.Model.Assessment;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// "5 easy from topic A, 3 hard from B": the sections are drawn in order, never repeating a question
+@Data
+public class QuizBlueprint {
+    private String title;
+    private int totalMarks;
+    private List<QuizSection> sections = new ArrayList<>();
+}
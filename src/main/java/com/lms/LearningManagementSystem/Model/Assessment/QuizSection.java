@@ -0,0 +1,17 @@
+package com.lms.LearningManagementSystem.Model.Assessment;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * One line of a quiz blueprint: count questions with the tag (any tag when null) and either one
+ * difficulty, a weighted mix of difficulties, or any difficulty when both are null.
+ */
+@Data
+public class QuizSection {
+    private String tag;
+    private Difficulty difficulty;
+    private Map<Difficulty, Double> mix;
+    private int count;
+}
@@ -0,0 +1,25 @@
+package com.lms.LearningManagementSystem.Model;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Attendance of every enrolled student across a course's lessons.
+ * Each row is one student, with one character per lesson: 'P' present, 'A' absent, '-' not marked.
+ */
+@Getter
+public class AttendanceMatrix {
+
+    private final List<String> lessonIds;
+    private final List<Long> studentIds;
+    private final List<String> rows;
+    private final double courseAttendanceRate;
+
+    public AttendanceMatrix(List<String> lessonIds, List<Long> studentIds, List<String> rows, double courseAttendanceRate) {
+        this.lessonIds = lessonIds;
+        this.studentIds = studentIds;
+        this.rows = rows;
+        this.courseAttendanceRate = courseAttendanceRate;
+    }
+}
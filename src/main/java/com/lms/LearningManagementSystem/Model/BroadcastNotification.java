@@ -0,0 +1,70 @@
+package com.lms.LearningManagementSystem.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+/**
+ * A notification addressed to a whole course roster, stored once instead of copied into every
+ * recipient's list. The audience is the roster as it stood when the event happened: students
+ * whose seat is below {@code audienceSize} (see {@link EnrollmentRoster#seatOf}). Whether a
+ * recipient has read it is tracked by their {@link NotificationInbox}.
+ * <p>
+ * A broadcast is never edited. When a later one of the same kind takes its place, it is only
+ * marked superseded: recipients who had not read it see just its successor, while those who had
+ * keep it as read history.
+ */
+@Getter
+public class BroadcastNotification {
+
+    private final String id;
+    private final String topic;
+    @JsonIgnore
+    private final String kind; // consecutive broadcasts of the same kind may be coalesced
+    private final String message;
+    @JsonIgnore
+    private final long createdAt;
+    @JsonIgnore
+    private final EnrollmentRoster audience;
+    private final int audienceSize;
+    @JsonIgnore
+    private volatile String supersededBy;
+
+    public BroadcastNotification(String id, String topic, String kind, String message, EnrollmentRoster audience) {
+        this.id = id;
+        this.topic = topic;
+        this.kind = kind;
+        this.message = message;
+        this.createdAt = System.currentTimeMillis();
+        this.audience = audience;
+        this.audienceSize = audience.size();
+    }
+
+    /**
+     * Whether an event of this kind may take this broadcast's place: it happened within the window
+     * and nobody has enrolled since (new students could not see this broadcast).
+     */
+    public boolean canBeSupersededBy(String kind, long now, long windowMillis) {
+        return this.kind != null && this.kind.equals(kind) && now - createdAt <= windowMillis
+                && audience.size() == audienceSize;
+    }
+
+    public void supersede(String successorId) {
+        this.supersededBy = successorId;
+    }
+
+    public boolean isSuperseded() {
+        return supersededBy != null;
+    }
+
+    public boolean isVisibleTo(long userId) {
+        int seat = audience.seatOf(userId);
+        return seat >= 0 && seat < audienceSize; // not if enrolled after the event
+    }
+
+    // A recipient's view of this broadcast, shaped like a personal notification
+    public Notification toNotification(boolean read) {
+        Notification notification = new Notification(id, message);
+        notification.setRead(read);
+        return notification;
+    }
+}
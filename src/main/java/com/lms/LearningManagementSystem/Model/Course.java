@@ -17,7 +17,7 @@ public class Course {
     private int duration;
     private List<String> mediaFiles;
     private List<Lesson> lessons = new ArrayList<>();
-    private List<Long> enrolledStudents;
+    private EnrollmentRoster enrolledStudents;
     private Instructor instructor;
 
     public Course(String id, String title, String description, int duration) {
@@ -27,6 +27,6 @@ public class Course {
         this.duration = duration;
         this.mediaFiles = new ArrayList<>();
         this.lessons = new ArrayList<>();
-        this.enrolledStudents = new ArrayList<>();
+        this.enrolledStudents = new EnrollmentRoster();
     }
 }
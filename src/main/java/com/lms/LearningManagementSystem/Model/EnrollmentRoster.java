@@ -0,0 +1,547 @@
+package com.lms.LearningManagementSystem.Model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed set of student ids enrolled in a course, laid out like a roaring bitmap:
+ * ids are bucketed by their high bits, and each bucket is a sorted char array while sparse
+ * (up to 4096 entries) and a 8 KB bitmap once dense. Membership is a binary search over the
+ * buckets plus an array or bit lookup, and add is an atomic check-and-add.
+ * <p>
+ * Every student also gets a seat: their position in enrollment order. Seats never change,
+ * so per-lesson attendance can be kept as bitsets indexed by seat.
+ * <p>
+ * Intersections and unions work bucket by bucket on snapshots of the two rosters: array buckets
+ * are merged, bitmap buckets combined a word at a time. Seats in a derived roster follow id order.
+ */
+public class EnrollmentRoster {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10; // 65536 bits
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] keys = new long[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    public EnrollmentRoster() {
+    }
+
+    private EnrollmentRoster(long[] keys, Container[] containers, int count) {
+        this.keys = Arrays.copyOf(keys, count);
+        this.containers = Arrays.copyOf(containers, count);
+        for (int i = 0; i < count; i++) {
+            size += this.containers[i].cardinality();
+        }
+    }
+
+    /**
+     * Adds the student unless already enrolled.
+     * @return true if the student was added, false if they were already on the roster
+     */
+    public boolean add(long studentId) {
+        lock.writeLock().lock();
+        try {
+            long key = studentId >>> 16;
+            char low = (char) studentId;
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                index = -index - 1;
+                insertContainer(index, key, new ArrayContainer());
+            }
+            Container container = containers[index];
+            if (container.contains(low)) {
+                return false;
+            }
+            containers[index] = container.add(low, size);
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long studentId) {
+        lock.readLock().lock();
+        try {
+            int index = Arrays.binarySearch(keys, studentId >>> 16);
+            return index >= 0 && containers[index].contains((char) studentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The student's seat (enrollment position), or -1 if not enrolled
+    public int seatOf(long studentId) {
+        lock.readLock().lock();
+        try {
+            int index = Arrays.binarySearch(keys, studentId >>> 16);
+            return index >= 0 ? containers[index].seatOf((char) studentId) : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Student ids indexed by seat
+    public long[] studentsBySeat() {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[size];
+            for (int i = 0; i < keys.length; i++) {
+                containers[i].copySeatsTo(keys[i] << 16, ids);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Snapshot of the roster in ascending id order; safe to iterate while others enroll
+    public long[] toArray() {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[size];
+            int position = 0;
+            for (int i = 0; i < keys.length; i++) {
+                position = containers[i].copyTo(keys[i] << 16, ids, position);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @JsonValue
+    public List<Long> toList() {
+        long[] ids = toArray();
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    // Students enrolled in both rosters
+    public EnrollmentRoster and(EnrollmentRoster other) {
+        EnrollmentRoster a = snapshot();
+        EnrollmentRoster b = other.snapshot(); // one lock at a time
+        long[] keys = new long[Math.min(a.keys.length, b.keys.length)];
+        Container[] containers = new Container[keys.length];
+        int count = 0;
+        int seat = 0;
+        for (int i = 0, j = 0; i < a.keys.length && j < b.keys.length; ) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container both = a.containers[i].and(b.containers[j], seat);
+                if (both.cardinality() > 0) {
+                    keys[count] = a.keys[i];
+                    containers[count++] = both;
+                    seat += both.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        return new EnrollmentRoster(keys, containers, count);
+    }
+
+    // Students enrolled in either roster
+    public EnrollmentRoster or(EnrollmentRoster other) {
+        EnrollmentRoster a = snapshot();
+        EnrollmentRoster b = other.snapshot();
+        long[] keys = new long[a.keys.length + b.keys.length];
+        Container[] containers = new Container[keys.length];
+        int count = 0;
+        int seat = 0;
+        for (int i = 0, j = 0; i < a.keys.length || j < b.keys.length; count++) {
+            Container either;
+            if (j == b.keys.length || (i < a.keys.length && a.keys[i] < b.keys[j])) {
+                keys[count] = a.keys[i];
+                either = a.containers[i++].reseat(seat);
+            } else if (i == a.keys.length || a.keys[i] > b.keys[j]) {
+                keys[count] = b.keys[j];
+                either = b.containers[j++].reseat(seat);
+            } else {
+                keys[count] = a.keys[i];
+                either = a.containers[i++].or(b.containers[j++], seat);
+            }
+            containers[count] = either;
+            seat += either.cardinality();
+        }
+        return new EnrollmentRoster(keys, containers, count);
+    }
+
+    // A private copy, so set operations can run without holding this roster's lock
+    private EnrollmentRoster snapshot() {
+        lock.readLock().lock();
+        try {
+            Container[] copies = new Container[containers.length];
+            for (int i = 0; i < copies.length; i++) {
+                copies[i] = containers[i].reseat(0);
+            }
+            return new EnrollmentRoster(keys, copies, copies.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Approximate retained heap size, used to compare against a List<Long>
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16 + 16 + 8L * keys.length + 16 + 4L * containers.length;
+            for (Container container : containers) {
+                bytes += container.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insertContainer(int index, long key, Container container) {
+        long[] newKeys = new long[keys.length + 1];
+        Container[] newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(containers, index, newContainers, index + 1, containers.length - index);
+        newKeys[index] = key;
+        newContainers[index] = container;
+        keys = newKeys;
+        containers = newContainers;
+    }
+
+    // Seats are stored in id order alongside the values, so a value's rank is also its seat's index
+    private interface Container {
+        int cardinality();
+
+        boolean contains(char low);
+
+        // Returns the container holding the value, which may be a converted one
+        Container add(char low, int seat);
+
+        int seatOf(char low);
+
+        int copyTo(long high, long[] target, int position);
+
+        void copySeatsTo(long high, long[] bySeat);
+
+        long sizeInBytes();
+
+        // A copy whose values take consecutive seats from firstSeat on
+        Container reseat(int firstSeat);
+
+        // New containers, seated from firstSeat on in value order
+        Container and(Container other, int firstSeat);
+
+        Container or(Container other, int firstSeat);
+    }
+
+    private static int[] consecutiveSeats(int length, int cardinality, int firstSeat) {
+        int[] seats = new int[length];
+        for (int i = 0; i < cardinality; i++) {
+            seats[i] = firstSeat + i;
+        }
+        return seats;
+    }
+
+    // The smaller layout for these bits: an array up to ARRAY_LIMIT values, a bitmap beyond
+    private static Container fromWords(long[] words, int cardinality, int firstSeat) {
+        if (cardinality > ARRAY_LIMIT) {
+            return new BitmapContainer(words, cardinality, firstSeat);
+        }
+        char[] values = new char[Math.max(4, cardinality)];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[n++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, cardinality, firstSeat);
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values;
+        private int[] seats;
+        private int cardinality;
+
+        ArrayContainer() {
+            this.values = new char[4];
+            this.seats = new int[4];
+        }
+
+        // Takes ownership of values, whose first cardinality entries are sorted
+        ArrayContainer(char[] values, int cardinality, int firstSeat) {
+            this.values = values;
+            this.cardinality = cardinality;
+            this.seats = consecutiveSeats(values.length, cardinality, firstSeat);
+        }
+
+        public int cardinality() {
+            return cardinality;
+        }
+
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        public Container add(char low, int seat) {
+            if (cardinality == ARRAY_LIMIT) {
+                return new BitmapContainer(this).add(low, seat);
+            }
+            int index = -Arrays.binarySearch(values, 0, cardinality, low) - 1;
+            if (cardinality == values.length) {
+                int capacity = Math.min(ARRAY_LIMIT, cardinality * 2);
+                values = Arrays.copyOf(values, capacity);
+                seats = Arrays.copyOf(seats, capacity);
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            System.arraycopy(seats, index, seats, index + 1, cardinality - index);
+            values[index] = low;
+            seats[index] = seat;
+            cardinality++;
+            return this;
+        }
+
+        public int seatOf(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            return index >= 0 ? seats[index] : -1;
+        }
+
+        public int copyTo(long high, long[] target, int position) {
+            for (int i = 0; i < cardinality; i++) {
+                target[position++] = high | values[i];
+            }
+            return position;
+        }
+
+        public void copySeatsTo(long high, long[] bySeat) {
+            for (int i = 0; i < cardinality; i++) {
+                bySeat[seats[i]] = high | values[i];
+            }
+        }
+
+        public long sizeInBytes() {
+            return 16 + 16 + 2L * values.length + 16 + 4L * seats.length;
+        }
+
+        public Container reseat(int firstSeat) {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality, firstSeat);
+        }
+
+        public Container and(Container other, int firstSeat) {
+            char[] both = new char[Math.max(4, Math.min(cardinality, other.cardinality()))];
+            int n = 0;
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0, j = 0; i < cardinality && j < array.cardinality; ) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        both[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        both[n++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(both, n, firstSeat);
+        }
+
+        public Container or(Container other, int firstSeat) {
+            if (!(other instanceof ArrayContainer array)) {
+                return other.or(this, firstSeat);
+            }
+            char[] either = new char[cardinality + array.cardinality];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                char a = values[i];
+                char b = array.values[j];
+                either[n++] = a <= b ? a : b;
+                if (a <= b) {
+                    i++;
+                }
+                if (b <= a) {
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                either[n++] = values[i++];
+            }
+            while (j < array.cardinality) {
+                either[n++] = array.values[j++];
+            }
+            if (n <= ARRAY_LIMIT) {
+                return new ArrayContainer(either.length < 4 ? Arrays.copyOf(either, 4) : either, n, firstSeat);
+            }
+            long[] words = new long[BITMAP_WORDS];
+            for (int k = 0; k < n; k++) {
+                words[either[k] >>> 6] |= 1L << either[k];
+            }
+            return new BitmapContainer(words, n, firstSeat);
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words;
+        // below[i]: values in words[0..i), so a rank is one lookup and one popcount. Fits a char: at most 1023 * 64.
+        private final char[] below = new char[BITMAP_WORDS];
+        private int[] seats;
+        private int cardinality;
+
+        BitmapContainer(ArrayContainer source) {
+            this.words = new long[BITMAP_WORDS];
+            for (int i = 0; i < source.cardinality; i++) {
+                char value = source.values[i];
+                words[value >>> 6] |= 1L << value;
+            }
+            seats = Arrays.copyOf(source.seats, source.cardinality * 2);
+            cardinality = source.cardinality;
+            countBelow();
+        }
+
+        // Takes ownership of words, which hold cardinality values
+        BitmapContainer(long[] words, int cardinality, int firstSeat) {
+            this.words = words;
+            this.cardinality = cardinality;
+            this.seats = consecutiveSeats(cardinality * 2, cardinality, firstSeat);
+            countBelow();
+        }
+
+        private void countBelow() {
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                below[i] = (char) count;
+                count += Long.bitCount(words[i]);
+            }
+        }
+
+        public int cardinality() {
+            return cardinality;
+        }
+
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        public Container add(char low, int seat) {
+            int rank = rank(low);
+            if (cardinality == seats.length) {
+                seats = Arrays.copyOf(seats, cardinality * 2);
+            }
+            System.arraycopy(seats, rank, seats, rank + 1, cardinality - rank);
+            seats[rank] = seat;
+            cardinality++;
+            words[low >>> 6] |= 1L << low;
+            for (int i = (low >>> 6) + 1; i < BITMAP_WORDS; i++) {
+                below[i]++;
+            }
+            return this;
+        }
+
+        public int seatOf(char low) {
+            return contains(low) ? seats[rank(low)] : -1;
+        }
+
+        // Number of values below low
+        private int rank(char low) {
+            int word = low >>> 6;
+            return below[word] + Long.bitCount(words[word] & ((1L << low) - 1));
+        }
+
+        public int copyTo(long high, long[] target, int position) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    target[position++] = high | ((long) i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return position;
+        }
+
+        public void copySeatsTo(long high, long[] bySeat) {
+            int rank = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    bySeat[seats[rank++]] = high | ((long) i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        public long sizeInBytes() {
+            return 16 + 16 + 8L * BITMAP_WORDS + 16 + 2L * BITMAP_WORDS + 16 + 4L * seats.length;
+        }
+
+        public Container reseat(int firstSeat) {
+            return new BitmapContainer(words.clone(), cardinality, firstSeat);
+        }
+
+        public Container and(Container other, int firstSeat) {
+            if (!(other instanceof BitmapContainer bitmap)) {
+                return other.and(this, firstSeat);
+            }
+            long[] both = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                both[i] = words[i] & bitmap.words[i];
+                count += Long.bitCount(both[i]);
+            }
+            return fromWords(both, count, firstSeat);
+        }
+
+        public Container or(Container other, int firstSeat) {
+            long[] either = words.clone();
+            if (other instanceof BitmapContainer bitmap) {
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    either[i] |= bitmap.words[i];
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    either[array.values[i] >>> 6] |= 1L << array.values[i];
+                }
+            }
+            int count = 0;
+            for (long word : either) {
+                count += Long.bitCount(word);
+            }
+            return new BitmapContainer(either, count, firstSeat);
+        }
+    }
+}
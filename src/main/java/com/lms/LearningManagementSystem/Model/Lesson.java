@@ -1,14 +1,16 @@
 package com.lms.LearningManagementSystem.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.BitSet;
 
 /**
  * Represents a lesson within a course.
- * Each lesson tracks its own attendance map and has a unique ID.
+ * Each lesson has a unique ID and tracks attendance as two bitsets indexed by roster seat
+ * (see {@link EnrollmentRoster#seatOf}): whether a seat was marked at all, and whether it was present.
  */
 @Setter
 @Getter
@@ -17,17 +19,51 @@ public class Lesson {
     private String id;
     private String title;
     private String content;
+    @JsonIgnore
     private String otp;
-    private Map<String, Boolean> attendance;
+    // Guarded by the lesson's lock: read them through the synchronized copies and counts below
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final BitSet marked = new BitSet();
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final BitSet present = new BitSet();
 
     public Lesson(String id, String title, String content) {
         this.id = id;
         this.title = title;
         this.content = content;
-        this.attendance = new HashMap<>();
     }
 
-    public void markAttendance(String studentId, boolean present) {
-        attendance.put(studentId, present);
+    public synchronized void markAttendance(int seat, boolean isPresent) {
+        marked.set(seat);
+        present.set(seat, isPresent);
+    }
+
+    // Applies a batch of check-ins in one go
+    public synchronized void markPresent(BitSet seats) {
+        marked.or(seats);
+        present.or(seats);
+    }
+
+    public synchronized boolean isMarked(int seat) {
+        return marked.get(seat);
+    }
+
+    public synchronized boolean isPresent(int seat) {
+        return present.get(seat);
+    }
+
+    public synchronized int getPresentCount() {
+        return present.cardinality();
+    }
+
+    // Copy of the present bitset, for analytics that must not hold the lesson lock
+    public synchronized BitSet presentSeats() {
+        return (BitSet) present.clone();
+    }
+
+    public synchronized BitSet markedSeats() {
+        return (BitSet) marked.clone();
     }
 }
@@ -1,5 +1,6 @@
 package com.lms.LearningManagementSystem.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,11 +10,16 @@ public class Notification {
     private String id;
     private String message;
     private boolean read;
+    @JsonIgnore
+    private String coalesceKey; // events with the same key may replace this one while it is unread
+    @JsonIgnore
+    private long createdAt;
 
     public Notification(String id, String message) {
         this.id = id;
         this.message = message;
         this.read = false;
+        this.createdAt = System.currentTimeMillis();
     }
 
     public void markAsRead() {
@@ -0,0 +1,51 @@
+package com.lms.LearningManagementSystem.Model;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle for an asynchronous notification fan-out, returned to the caller straight away
+ * and updated by the delivery workers as batches complete. Recipients whose send threw
+ * count as failed, so the handle still completes.
+ */
+@Getter
+public class NotificationDelivery {
+
+    private final String id;
+    private final String topic;
+    private final int recipients;
+    private final long enqueuedAt;
+    private volatile long completedAt;
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public NotificationDelivery(String id, String topic, int recipients, long enqueuedAt) {
+        this.id = id;
+        this.topic = topic;
+        this.recipients = recipients;
+        this.enqueuedAt = enqueuedAt;
+        if (recipients == 0) {
+            this.completedAt = enqueuedAt;
+        }
+    }
+
+    public int getDelivered() {
+        return delivered.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public boolean isComplete() {
+        return completedAt != 0;
+    }
+
+    public void recordDelivered(int count, int failures, long now) {
+        failed.addAndGet(failures);
+        if (delivered.addAndGet(count) + failed.get() >= recipients) {
+            completedAt = now;
+        }
+    }
+}
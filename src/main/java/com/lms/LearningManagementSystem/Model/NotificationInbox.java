@@ -0,0 +1,186 @@
+package com.lms.LearningManagementSystem.Model;
+
+import java.util.*;
+import java.util.function.LongPredicate;
+
+/**
+ * A user's personal notifications, kept in a fixed-size ring buffer: once full, each new
+ * notification evicts the oldest. Notifications are appended in increasing id order, so ids
+ * double as cursors: pages and lookups are binary searches over the ring.
+ * <p>
+ * "Mark all read up to a cursor" only moves a read watermark. Flags of notifications below the
+ * watermark are flipped lazily the next time the inbox is read, each at most once, which keeps the
+ * maintained unread count exact. The inbox also records which course broadcasts above the
+ * watermark the user has read, so their unread count does not need the feed either.
+ */
+public class NotificationInbox {
+
+    private final Notification[] ring;
+    private final long[] sequences; // ids of the ring slots, as numbers
+    private final Map<String, Notification> byId = new HashMap<>();
+    private final Map<String, Notification> latestByKey = new HashMap<>();
+    private final NavigableSet<Long> readBroadcasts = new TreeSet<>();
+    private int head; // slot of the oldest notification
+    private int size;
+    private int unread;
+    private long watermark = -1; // everything up to and including this id is read
+    private int settled; // leading notifications whose read flag already reflects the watermark
+
+    public NotificationInbox(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Inbox capacity must be positive.");
+        }
+        this.ring = new Notification[capacity];
+        this.sequences = new long[capacity];
+    }
+
+    public synchronized void add(Notification notification) {
+        long sequence = Long.parseLong(notification.getId());
+        if (size > 0 && sequence <= sequences[slot(size - 1)]) {
+            throw new IllegalArgumentException("Notifications must be added in increasing id order.");
+        }
+        if (size == ring.length) {
+            settle();
+            Notification evicted = ring[head];
+            byId.remove(evicted.getId());
+            if (evicted.getCoalesceKey() != null) {
+                latestByKey.remove(evicted.getCoalesceKey(), evicted);
+            }
+            if (!evicted.isRead()) {
+                unread--;
+            }
+            if (settled > 0) {
+                settled--;
+            }
+            head = (head + 1) % ring.length;
+            size--;
+        }
+        int slot = slot(size);
+        ring[slot] = notification;
+        sequences[slot] = sequence;
+        size++;
+        byId.put(notification.getId(), notification);
+        if (notification.getCoalesceKey() != null) {
+            latestByKey.put(notification.getCoalesceKey(), notification);
+        }
+        if (sequence <= watermark) {
+            notification.markAsRead();
+        } else if (!notification.isRead()) {
+            unread++;
+        }
+    }
+
+    /**
+     * Replaces the text of the latest notification with this key, in place, if it is still unread
+     * and was created within the window. Returns it, or null when a new notification is needed.
+     */
+    public synchronized Notification supersede(String coalesceKey, String message, long now, long windowMillis) {
+        Notification latest = latestByKey.get(coalesceKey);
+        if (latest == null || now - latest.getCreatedAt() > windowMillis) {
+            return null;
+        }
+        settle();
+        if (latest.isRead()) {
+            return null;
+        }
+        latest.setMessage(message);
+        return latest;
+    }
+
+    // Oldest first
+    public synchronized List<Notification> list(boolean onlyUnread) {
+        return page(-1, Integer.MAX_VALUE, onlyUnread);
+    }
+
+    // Up to limit notifications with an id greater than after, oldest first
+    public synchronized List<Notification> page(long after, int limit, boolean onlyUnread) {
+        settle();
+        List<Notification> notifications = new ArrayList<>(Math.min(limit, onlyUnread ? unread : size));
+        for (int i = firstAfter(after); i < size && notifications.size() < limit; i++) {
+            Notification notification = ring[slot(i)];
+            if (!onlyUnread || !notification.isRead()) {
+                notifications.add(notification);
+            }
+        }
+        return notifications;
+    }
+
+    // Returns false if the notification is not (or no longer) in the inbox
+    public synchronized boolean markAsRead(String notificationId) {
+        Notification notification = byId.get(notificationId);
+        if (notification == null) {
+            return false;
+        }
+        settle();
+        if (!notification.isRead()) {
+            notification.markAsRead();
+            unread--;
+        }
+        return true;
+    }
+
+    // O(1): flags below the cursor are flipped lazily by settle()
+    public synchronized long markAllReadUpTo(long cursor) {
+        watermark = Math.max(watermark, cursor);
+        return watermark;
+    }
+
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    public synchronized int getUnreadCount() {
+        settle();
+        return unread;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Returns false if the broadcast was already read, explicitly or through the watermark
+    public synchronized boolean recordBroadcastRead(long broadcastId) {
+        return broadcastId > watermark && readBroadcasts.add(broadcastId);
+    }
+
+    public synchronized boolean hasReadBroadcast(long broadcastId) {
+        return broadcastId <= watermark || readBroadcasts.contains(broadcastId);
+    }
+
+    // Broadcasts read explicitly, not yet covered by the watermark and still retained; forgets the rest
+    public synchronized int countBroadcastReads(LongPredicate retained) {
+        settle();
+        readBroadcasts.removeIf(broadcastId -> !retained.test(broadcastId));
+        return readBroadcasts.size();
+    }
+
+    private void settle() {
+        while (settled < size && sequences[slot(settled)] <= watermark) {
+            Notification notification = ring[slot(settled)];
+            if (!notification.isRead()) {
+                notification.markAsRead();
+                unread--;
+            }
+            settled++;
+        }
+        readBroadcasts.headSet(watermark, true).clear();
+    }
+
+    private int firstAfter(long after) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sequences[slot(mid)] > after) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private int slot(int index) {
+        return (head + index) % ring.length;
+    }
+}
@@ -1,12 +1,10 @@
 package com.lms.LearningManagementSystem.Model.User;
 
-import com.lms.LearningManagementSystem.Model.Notification;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 @Setter
@@ -15,11 +13,10 @@ public class User {
     private Long id;
     private String name;
     private String email;
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) // accepted on registration, never echoed back
     private String password;
     private String role;
 
-    @Getter
-    private List<Notification> notifications = new ArrayList<>();
     @Getter
     private Set<String> bookmarkedCourses = new HashSet<>();
 
@@ -42,8 +39,4 @@ public class User {
         return false;
     }
 
-    public void addNotification(Notification notification) {
-        this.notifications.add(notification);
-    }
-
 }
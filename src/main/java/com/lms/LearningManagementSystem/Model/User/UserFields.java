@@ -0,0 +1,81 @@
+package com.lms.LearningManagementSystem.Model.User;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Sparse fieldsets for user responses ({@code ?fields=id,name,role}). A projection is a thin view
+ * over the user that writes only the requested fields straight to the JSON output, so nothing is
+ * copied per user and the bookmarked courses are serialized only when they are asked for.
+ */
+public final class UserFields {
+
+    public static final List<String> ALL = List.of("id", "name", "email", "role", "bookmarkedCourses");
+
+    private UserFields() {
+    }
+
+    // Comma-separated field names, case-sensitive, in the order they should appear
+    public static List<String> parse(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new IllegalArgumentException("Unknown user field: " + name + ". Valid fields are " + String.join(", ", ALL) + ".");
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one user field is required.");
+        }
+        return List.copyOf(requested);
+    }
+
+    public static Projection project(User user, List<String> fields) {
+        return new Projection(user, fields);
+    }
+
+    public record Projection(User user, List<String> fields) implements JsonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator json, SerializerProvider provider) throws IOException {
+            json.writeStartObject();
+            for (String field : fields) {
+                switch (field) {
+                    case "id":
+                        if (user.getId() == null) {
+                            json.writeNullField(field);
+                        } else {
+                            json.writeNumberField(field, user.getId());
+                        }
+                        break;
+                    case "name": json.writeStringField(field, user.getName()); break;
+                    case "email": json.writeStringField(field, user.getEmail()); break;
+                    case "role": json.writeStringField(field, user.getRole()); break;
+                    case "bookmarkedCourses":
+                        json.writeArrayFieldStart(field);
+                        for (String courseId : user.getBookmarkedCourses()) {
+                            json.writeString(courseId);
+                        }
+                        json.writeEndArray();
+                        break;
+                    default: throw new IllegalStateException("Unknown user field: " + field);
+                }
+            }
+            json.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator json, SerializerProvider provider, TypeSerializer type) throws IOException {
+            serialize(json, provider);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.lms.LearningManagementSystem.Model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// What list endpoints return for a user: identity and role, without the password or bookmarks
+@Getter
+@AllArgsConstructor
+public class UserSummary {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String role;
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getEmail(), user.getRole());
+    }
+}
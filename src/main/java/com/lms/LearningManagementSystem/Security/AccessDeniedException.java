@@ -0,0 +1,15 @@
+package com.lms.LearningManagementSystem.Security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A signed-in caller tried to act as another user, or without the role the action needs. Not an
+ * IllegalArgumentException on purpose: controllers map those to 400, this one always answers 403.
+ */
+public class AccessDeniedException extends ResponseStatusException {
+
+    public AccessDeniedException(String reason) {
+        super(HttpStatus.FORBIDDEN, reason);
+    }
+}
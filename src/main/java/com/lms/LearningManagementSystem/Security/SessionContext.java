@@ -0,0 +1,26 @@
+package com.lms.LearningManagementSystem.Security;
+
+/**
+ * The principal of the request being handled on this thread, set by {@link SessionTokenFilter}.
+ * Every request runs on its own (virtual) thread, and the filter clears the slot when it is done.
+ */
+public final class SessionContext {
+
+    private static final ThreadLocal<SessionPrincipal> CURRENT = new ThreadLocal<>();
+
+    private SessionContext() {
+    }
+
+    // Null when the request carried no session token
+    public static SessionPrincipal current() {
+        return CURRENT.get();
+    }
+
+    static void set(SessionPrincipal principal) {
+        CURRENT.set(principal);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,12 @@
+package com.lms.LearningManagementSystem.Security;
+
+/**
+ * The caller of a request, as carried by a verified session token: no user store lookup is needed
+ * to know who they are and what role they hold.
+ */
+public record SessionPrincipal(long userId, String role, long issuedAt, String tokenId) {
+
+    public boolean hasRole(String role) {
+        return this.role.equalsIgnoreCase(role);
+    }
+}
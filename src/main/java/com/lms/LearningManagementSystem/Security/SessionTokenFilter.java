@@ -0,0 +1,59 @@
+package com.lms.LearningManagementSystem.Security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Verifies the {@code Authorization: Bearer} session token of each request and makes its principal
+ * available through {@link SessionContext}. A request with a bad, expired or revoked token is
+ * turned away with 401; a request without one passes through, and the services fall back to
+ * looking the user up by the id in the path.
+ */
+@Component
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    public static final String BEARER = "Bearer ";
+
+    private final SessionTokens sessionTokens;
+
+    public SessionTokenFilter(SessionTokens sessionTokens) {
+        this.sessionTokens = sessionTokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = bearerToken(request);
+        if (token == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SessionPrincipal principal = sessionTokens.verify(token);
+        if (principal == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Invalid or expired session token.\"}");
+            return;
+        }
+        SessionContext.set(principal);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SessionContext.clear();
+        }
+    }
+
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())
+                ? header.substring(BEARER.length()).trim() : null;
+    }
+}
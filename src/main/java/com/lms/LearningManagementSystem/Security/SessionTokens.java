@@ -0,0 +1,145 @@
+package com.lms.LearningManagementSystem.Security;
+
+import com.lms.LearningManagementSystem.Model.User.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues and verifies stateless session tokens: {@code payload.signature}, both base64url, where the
+ * payload is {@code userId:role:issuedAtMillis:tokenId} and the signature is its HMAC-SHA256.
+ * Verifying one is a MAC over a few dozen bytes and a map probe, with no user store lookup.
+ * <p>
+ * Logout puts the token id in a revocation map until the token would have expired anyway, so the
+ * map only ever holds tokens that are still within their lifetime. Revoking a user (on delete or a
+ * change of role) rejects every token issued to them up to that moment. Without a configured
+ * secret a random one is generated at startup, and a restart signs everyone out.
+ */
+@Component
+public class SessionTokens {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final long SWEEP_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final long ttlMillis;
+    private final Mac prototype; // Mac is not thread-safe; each use works on a clone of this one
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>(); // token id -> expiry
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>(); // user id -> revoked at
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    @Autowired
+    public SessionTokens(@Value("${lms.security.token-secret:}") String secret,
+                         @Value("${lms.security.token-ttl-minutes:480}") long ttlMinutes) {
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        byte[] key;
+        if (secret.isEmpty()) {
+            key = new byte[32];
+            random.nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available.", e);
+        }
+    }
+
+    public String issue(User user) {
+        if (user.getId() == null || user.getRole() == null) {
+            throw new IllegalArgumentException("Only registered users with a role can sign in.");
+        }
+        byte[] tokenId = new byte[9];
+        random.nextBytes(tokenId);
+        String payload = user.getId() + ":" + user.getRole().toLowerCase(Locale.ROOT) + ":"
+                + System.currentTimeMillis() + ":" + ENCODER.encodeToString(tokenId);
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(sign(bytes));
+    }
+
+    // The principal of a genuine, unexpired and unrevoked token; null for anything else
+    public SessionPrincipal verify(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+        // Signed by us, so the layout is known to be ours
+        String[] parts = new String(payload, StandardCharsets.UTF_8).split(":");
+        SessionPrincipal principal = new SessionPrincipal(Long.parseLong(parts[0]), parts[1], Long.parseLong(parts[2]), parts[3]);
+        if (System.currentTimeMillis() - principal.issuedAt() >= ttlMillis || revokedTokens.containsKey(principal.tokenId())) {
+            return null;
+        }
+        Long userRevokedAt = revokedUsers.isEmpty() ? null : revokedUsers.get(principal.userId());
+        return userRevokedAt != null && principal.issuedAt() <= userRevokedAt ? null : principal;
+    }
+
+    // Logout: returns false if the token was not valid to begin with
+    public boolean revoke(String token) {
+        SessionPrincipal principal = verify(token);
+        if (principal == null) {
+            return false;
+        }
+        revokedTokens.put(principal.tokenId(), principal.issuedAt() + ttlMillis);
+        sweep();
+        return true;
+    }
+
+    // Signs the user out everywhere: tokens issued to them so far stop verifying
+    public void revokeUser(Long userId) {
+        revokedUsers.put(userId, System.currentTimeMillis());
+        sweep();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("revokedTokens", revokedTokens.size());
+        metrics.put("revokedUsers", revokedUsers.size());
+        return metrics;
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Entries for tokens that have expired on their own are no longer needed
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        long last = lastSweep.get();
+        if (now - last < SWEEP_MILLIS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revokedAt -> now - revokedAt >= ttlMillis);
+    }
+}
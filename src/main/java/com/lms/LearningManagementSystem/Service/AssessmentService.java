@@ -3,90 +3,390 @@ package com.lms.LearningManagementSystem.Service;
 import com.lms.LearningManagementSystem.Model.Assessment.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AssessmentService {
-    private List<Quiz> quizzes = new ArrayList<>();
+    private static final int GRADING_BATCH = 256;
+
+    private final List<Quiz> quizzes = new CopyOnWriteArrayList<>();
     private List<Assignment> assignments = new ArrayList<>();
-    private List<Grading> gradings = new ArrayList<>();
-    private Long idCounter = 1L;
+    private final GradingStore gradings; // grading workers append in batches
+    private final AtomicLong idCounter = new AtomicLong(1);
     private Long idAssignmentCounter = 1L;
-    public List<Question> Questions = new ArrayList<>();
-    public Map<String, String> submission = new HashMap<>();
+    // Appended to by addQuestions: quiz generation samples a snapshot without locking
+    private final QuestionPartitions partitions = new QuestionPartitions();
+    private final Map<Long, Question> questionsById = new ConcurrentHashMap<>();
+    // Concurrent: quiz takers submit and get graded while new quizzes are created
+    private final Map<Long, Quiz> quizzesById = new ConcurrentHashMap<>();
+    private final Map<Long, QuizDefinition> definitions = new ConcurrentHashMap<>(); // quiz id -> answers
+    private final SubmissionStore submissions = new SubmissionStore();
+    private final Map<Long, GradingRun> gradingRuns = new ConcurrentHashMap<>();
+    private final ForkJoinPool gradingPool; // work-stealing, so uneven batches still keep every worker busy
+
+    public AssessmentService() {
+        this(0);
+    }
+
+    @Autowired
+    public AssessmentService(@Value("${lms.grading.parallelism:0}") int parallelism) {
+        this(parallelism, new GradingStore());
+    }
+
+    public AssessmentService(int parallelism, GradingStore gradings) {
+        this.gradings = gradings;
+        this.gradingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        gradingPool.shutdown();
+    }
 
     // Create Quiz
     public Quiz createQuiz(String title, int num, int totalMarks) {
+        return createQuiz(title, num, totalMarks, false);
+    }
+
+    /**
+     * Draws num questions from the current bank. With perStudent, the returned quiz is only a
+     * sample: every student gets their own draw from the same bank snapshot, seeded by the quiz and
+     * the student so it is the same each time they ask.
+     */
+    public Quiz createQuiz(String title, int num, int totalMarks, boolean perStudent) {
+        QuestionPartitions.Snapshot bank = partitions.all();
         // Ensure the requested number of questions does not exceed the available questions
-        if (num > Questions.size()) {
+        if (num < 0 || num > bank.size()) {
             throw new IllegalArgumentException("Requested number of questions exceeds the available question bank size.");
         }
-        // Shuffle the question bank
-        Collections.shuffle(Questions);
-        // Select the first 'num' questions from the shuffled list
-        List<Question> selectedQuestions = new ArrayList<>();
-        for (int i = 0; i < num; i++) {
-            Question originalQuestion = Questions.get(i);
-            // Create a new Question object (deep copy)
-            Question copiedQuestion = new Question(
-                    originalQuestion.getId(),
-                    originalQuestion.getText(),
-                    originalQuestion.getOptions(),
-                    null // Remove the correct answer for the quiz
-            );
-            selectedQuestions.add(copiedQuestion);
-        }
-        // Create the quiz with selected questions
-        Quiz quiz = new Quiz(idCounter++, title, totalMarks, selectedQuestions);
+        long seed = ThreadLocalRandom.current().nextLong();
+        Question[] selected = QuestionSampler.sample(bank.items(), 0, bank.size(), num, new SplittableRandom(seed));
+        Quiz quiz = new Quiz(idCounter.getAndIncrement(), title, totalMarks, withoutAnswers(selected));
+        quiz.setPerStudent(perStudent);
+        register(quiz, new QuizDefinition(perStudent ? bank : null, num, seed, new AnswerKey(List.of(selected))));
+        return quiz;
+    }
 
+    /**
+     * Draws a quiz section by section from the tag and difficulty partitions, so the cost grows with
+     * the questions asked for rather than the bank. A section with a difficulty mix splits its count
+     * across difficulties in proportion to the mix, rounded by largest remainder. No question is
+     * drawn twice. Blueprint quizzes are the same for every student.
+     */
+    public Quiz createQuiz(QuizBlueprint blueprint) {
+        if (blueprint == null || blueprint.getSections() == null || blueprint.getSections().isEmpty()) {
+            throw new IllegalArgumentException("A blueprint needs at least one section.");
+        }
+        RandomGenerator random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        List<Question> selected = new ArrayList<>();
+        Set<Long> taken = new HashSet<>();
+        for (QuizSection section : blueprint.getSections()) {
+            if (section.getCount() < 0) {
+                throw new IllegalArgumentException("Section counts cannot be negative.");
+            }
+            String tag = QuestionPartitions.normalize(section.getTag());
+            if (section.getMix() == null || section.getMix().isEmpty()) {
+                draw(tag, section.getDifficulty(), section.getCount(), random, taken, selected);
+                continue;
+            }
+            if (section.getDifficulty() != null) {
+                throw new IllegalArgumentException("A section takes a difficulty or a mix, not both.");
+            }
+            // In enum order, so the same mix always gives the same split
+            List<Difficulty> levels = new ArrayList<>();
+            for (Difficulty level : Difficulty.values()) {
+                if (section.getMix().containsKey(level)) {
+                    levels.add(level);
+                }
+            }
+            double[] weights = new double[levels.size()];
+            for (int i = 0; i < weights.length; i++) {
+                Double weight = section.getMix().get(levels.get(i));
+                weights[i] = weight == null ? Double.NaN : weight;
+            }
+            int[] counts = apportion(weights, section.getCount(), new AliasTable(weights), random);
+            for (int i = 0; i < counts.length; i++) {
+                draw(tag, levels.get(i), counts[i], random, taken, selected);
+            }
+        }
+        Question[] drawn = selected.toArray(new Question[0]);
+        Quiz quiz = new Quiz(idCounter.getAndIncrement(), blueprint.getTitle(), blueprint.getTotalMarks(), withoutAnswers(drawn));
+        register(quiz, new QuizDefinition(null, drawn.length, 0, new AnswerKey(selected)));
+        return quiz;
+    }
+
+    /**
+     * Splits count in proportion to the weights: each level gets the floor of its quota and the
+     * questions left over go to the largest fractional parts, so every level is within one question
+     * of its exact share. Only an exact tie for the last questions is left to chance, settled by a
+     * draw from the mix's alias table among the tied levels.
+     */
+    private static int[] apportion(double[] weights, int count, AliasTable table, RandomGenerator random) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        int[] counts = new int[weights.length];
+        double[] remainders = new double[weights.length];
+        int left = count;
+        for (int i = 0; i < weights.length; i++) {
+            double quota = count * weights[i] / total;
+            counts[i] = (int) quota;
+            remainders[i] = quota - counts[i];
+            left -= counts[i];
+        }
+        boolean[] rounded = new boolean[weights.length];
+        for (; left > 0; left--) {
+            double largest = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (!rounded[i] && remainders[i] > largest) {
+                    largest = remainders[i];
+                }
+            }
+            int pick;
+            do {
+                pick = table.next(random);
+            } while (rounded[pick] || remainders[pick] != largest); // tied levels all have positive weight
+            rounded[pick] = true;
+            counts[pick]++;
+        }
+        return counts;
+    }
+
+    private void draw(String tag, Difficulty difficulty, int count, RandomGenerator random,
+                      Set<Long> taken, List<Question> selected) {
+        QuestionPartitions.Snapshot partition = partitions.snapshot(tag, difficulty);
+        if (count > partition.size()) {
+            throw new IllegalArgumentException("Not enough " + (difficulty == null ? "" : difficulty + " ")
+                    + "questions" + (tag == null ? "" : " tagged " + tag) + " in the bank.");
+        }
+        QuestionSampler.sampleInto(partition.items(), 0, partition.size(), count, random, taken, selected);
+    }
+
+    private void register(Quiz quiz, QuizDefinition definition) {
         // Add the quiz to the list of quizzes
         quizzes.add(quiz);
+        quizzesById.put(quiz.getId(), quiz);
+        definitions.put(quiz.getId(), definition);
+    }
 
-        return quiz;
+    // The quiz as this student sees it; the shared quiz unless it draws per student, which needs the student
+    public Quiz findQuizFor(Long quizId, Long studentId) {
+        Quiz quiz = quizzesById.get(quizId);
+        QuizDefinition definition = definitions.get(quizId);
+        if (quiz == null || !quiz.isPerStudent()) {
+            return quiz;
+        }
+        if (studentId == null) {
+            throw new IllegalArgumentException("Each student gets their own questions for this quiz: studentId is required.");
+        }
+        Quiz variant = new Quiz(quiz.getId(), quiz.getTitle(), quiz.getTotalMarks(),
+                withoutAnswers(definition.draw(studentId)));
+        variant.setPerStudent(true);
+        return variant;
+    }
+
+    // Copies handed to students: the correct answer and partial credit stay in the bank
+    private static List<Question> withoutAnswers(Question[] originals) {
+        List<Question> copies = new ArrayList<>(originals.length);
+        for (Question original : originals) {
+            Question copy = new Question(original.getId(), original.getText(), original.getOptions(), null);
+            copy.setWeight(original.getWeight());
+            copy.setDifficulty(original.getDifficulty());
+            copy.setTags(original.getTags());
+            copies.add(copy);
+        }
+        return copies;
     }
 
-    public void SubmitQuiz(Long quizId, Map<String, String> answers) {
-        // Iterate over the entries in each map
-        for (Map.Entry<String, String> ans : answers.entrySet()) {
-            String questionID = ans.getKey();  // Get the question ID (key)
-            String answer = ans.getValue();  // Get the answer (value)
-            submission.put(questionID, answer);  // Add the new map to the list
+    private QuizDefinition definition(Long quizId) {
+        QuizDefinition definition = definitions.get(quizId);
+        if (definition == null) {
+            throw new IllegalArgumentException("Quiz not found.");
         }
+        return definition;
     }
 
+    // Stores the student's answers for the quiz, replacing an earlier submission
+    public void SubmitQuiz(Long quizId, Long studentId, Map<String, ?> answers) {
+        AnswerKey key = definition(quizId).keyFor(studentId);
+        if (answers == null) {
+            throw new IllegalArgumentException("No answers provided!");
+        }
+        submissions.put(quizId, studentId, key.encode(answers));
+    }
+
+    // Grades against the quiz's compiled answer key; returns the number of fully correct answers
     public int correctAnswersCount(Long quizId, Long studentId) {
-        int count = 0;
-        for (Map.Entry<String, String> ans : submission.entrySet()) {
-            String questionID = ans.getKey();  // Get the question ID (key)
-            String answer = ans.getValue();  // Get the answer (value)
-            for (Question q : Questions) {
-                if (q.getId().equals(Long.parseLong(questionID))) {
-                    if (q.getCorrectAnswer().equals(answer)) {
-                        count++;
-                    }
+        AnswerKey key = definition(quizId).keyFor(studentId);
+        byte[] answers = submissions.get(quizId, studentId);
+        if (answers == null) {
+            throw new IllegalArgumentException("No submission found for this student and quiz.");
+        }
+        AnswerKey.Score score = key.grade(answers);
+        recordGradings(List.of(new Grading(quizId, studentId, GradingType.QUIZ, mark(score), feedback(score))));
+        return score.correct();
+    }
+
+    // The student's current score, without recording a grading
+    public int previewCorrectAnswers(Long quizId, Long studentId) {
+        byte[] answers = submissions.get(quizId, studentId);
+        if (answers == null) {
+            throw new IllegalArgumentException("No submission found for this student and quiz.");
+        }
+        return definition(quizId).keyFor(studentId).grade(answers).correct();
+    }
+
+    /**
+     * Closes the quiz to submissions and grades every submission in parallel on the grading pool,
+     * writing the gradings in batches. Returns the run straight away; closing again returns the
+     * same run. A run that failed is dropped before it completes, so closing again starts a new
+     * one for just the submissions it could not grade.
+     */
+    public GradingRun closeQuiz(Long quizId) {
+        QuizDefinition definition = definition(quizId);
+        // A failed run is replaced by one over the submissions it left ungraded; any other run stands
+        return gradingRuns.compute(quizId, (id, current) -> {
+            if (current != null && !current.hasFailed()) {
+                return current;
+            }
+            Map<Long, byte[]> closed = submissions.close(id);
+            Set<Long> retry = current == null ? null : current.getFailedStudents();
+            int count = retry == null ? closed.size() : retry.size();
+            long[] studentIds = new long[count];
+            byte[][] answers = new byte[count][];
+            int i = 0;
+            for (Map.Entry<Long, byte[]> submission : closed.entrySet()) {
+                if (retry == null || retry.contains(submission.getKey())) {
+                    studentIds[i] = submission.getKey();
+                    answers[i++] = submission.getValue();
                 }
             }
+            GradingRun run = new GradingRun(id, i, System.currentTimeMillis());
+            if (i > 0) {
+                gradingPool.execute(new GradeBatch(run, definition, studentIds, answers, 0, i));
+            }
+            return run;
+        });
+    }
+
+    public GradingRun getGradingRun(Long quizId) {
+        return gradingRuns.get(quizId);
+    }
+
+    private void recordGradings(List<Grading> batch) {
+        gradings.addAll(batch);
+    }
+
+    // Splits until a batch is small enough, then grades it and writes its gradings in one go
+    private final class GradeBatch extends RecursiveAction {
+        private final GradingRun run;
+        private final QuizDefinition definition;
+        private final long[] studentIds;
+        private final byte[][] answers;
+        private final int from;
+        private final int to;
+
+        GradeBatch(GradingRun run, QuizDefinition definition, long[] studentIds, byte[][] answers, int from, int to) {
+            this.run = run;
+            this.definition = definition;
+            this.studentIds = studentIds;
+            this.answers = answers;
+            this.from = from;
+            this.to = to;
         }
-        String feedback;
-        if (count == submission.size()) {
-            feedback = "Good Job!";
-        } else if (count >= submission.size() * 0.75) { // At least 75% correct
-            feedback = "Well Done! Keep Improving!";
-        } else {
-            feedback = "You Need More Hard Work!";
+
+        @Override
+        protected void compute() {
+            if (to - from > GRADING_BATCH) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GradeBatch(run, definition, studentIds, answers, from, middle),
+                        new GradeBatch(run, definition, studentIds, answers, middle, to));
+                return;
+            }
+            List<Grading> batch = new ArrayList<>(to - from);
+            List<Long> failed = new ArrayList<>();
+            RuntimeException cause = null;
+            for (int i = from; i < to; i++) {
+                try {
+                    AnswerKey.Score score = definition.keyFor(studentIds[i]).grade(answers[i]);
+                    batch.add(new Grading(run.getQuizId(), studentIds[i], GradingType.QUIZ, mark(score), feedback(score)));
+                } catch (RuntimeException e) {
+                    failed.add(studentIds[i]); // one bad submission does not hold up the rest
+                    cause = e;
+                }
+            }
+            try {
+                recordGradings(batch);
+            } catch (RuntimeException e) {
+                batch.forEach(grading -> failed.add(grading.getStudentId()));
+                batch.clear();
+                cause = e;
+            }
+            if (run.recordBatch(batch.size(), failed, cause)) {
+                run.complete(System.currentTimeMillis());
+            }
         }
-        String mark = count + " / " + submission.size();
-        gradings.add(new Grading(quizId, studentId, "quiz", mark, feedback));
-        return count;
+    }
+
+    static String mark(AnswerKey.Score score) {
+        return points(score.points()) + " / " + points(score.maxPoints());
+    }
+
+    static String feedback(AnswerKey.Score score) {
+        if (score.points() >= score.maxPoints()) {
+            return "Good Job!";
+        } else if (score.points() >= score.maxPoints() * 0.75) { // At least 75% of the points
+            return "Well Done! Keep Improving!";
+        }
+        return "You Need More Hard Work!";
+    }
+
+    private static String points(double points) {
+        return points == Math.rint(points) ? Long.toString((long) points) : String.format(Locale.ROOT, "%.2f", points);
     }
 
     // create Questions bank
-    public void addQuestions(List<Question> questions) {
+    public synchronized void addQuestions(List<Question> questions) {
         if (questions != null && !questions.isEmpty()) {
+            // Checked up front so a bad batch adds nothing
+            Set<Long> batchIds = new HashSet<>();
+            for (Question question : questions) {
+                if (question.getId() == null) {
+                    throw new IllegalArgumentException("Every question needs an id.");
+                }
+                if (questionsById.containsKey(question.getId()) || !batchIds.add(question.getId())) {
+                    throw new IllegalArgumentException("Question " + question.getId() + " is already in the bank.");
+                }
+                if (question.getDifficulty() == null) {
+                    throw new IllegalArgumentException("Question " + question.getId() + " needs a difficulty.");
+                }
+                if (question.getTags() != null && question.getTags().stream().anyMatch(tag -> tag == null || tag.isBlank())) {
+                    throw new IllegalArgumentException("Question " + question.getId() + " has a blank tag.");
+                }
+                if (question.getWeight() < 0) {
+                    throw new IllegalArgumentException("Question " + question.getId() + " has a negative weight.");
+                }
+                if (question.getPartialCredit() != null && question.getPartialCredit().values().stream()
+                        .anyMatch(credit -> credit == null || credit < 0 || credit > 1)) {
+                    throw new IllegalArgumentException("Partial credit of question " + question.getId() + " must be between 0 and 1.");
+                }
+            }
             for (Question question : questions) {
-                // Add each question to the question bank or database
-                Questions.add(question);
+                // Add each question to the question bank and its tag and difficulty partitions
+                partitions.add(question);
+                questionsById.put(question.getId(), question);
             }
         } else {
             // Handle empty or null list gracefully
@@ -94,18 +394,18 @@ public class AssessmentService {
         }
     }
 
+    public Question findQuestionById(Long id) {
+        return questionsById.get(id);
+    }
+
     public List<Question> GetQuestions() {
-        return new ArrayList<>(Questions);
+        QuestionPartitions.Snapshot bank = partitions.all();
+        return new ArrayList<>(Arrays.asList(bank.items()).subList(0, bank.size()));
     }
 
     // Get Quiz by ID
     public Quiz findQuizById(Long id) {
-        for (Quiz quiz : quizzes) {
-            if (quiz.getId().equals(id)) {
-                return quiz;
-            }
-        }
-        return null; // Return null if no quiz is found
+        return quizzesById.get(id); // null if no quiz is found
     }
 
     public List<Quiz> GetAllquizzes() {
@@ -143,37 +443,65 @@ public class AssessmentService {
 
     // Grade Assessment
     public void gradeAssignment(Long studentId, String type, String marks, String feedback) {
-        gradings.add(new Grading(idAssignmentCounter++, studentId, "Assignment", marks, feedback));
+        recordGradings(List.of(new Grading(idAssignmentCounter++, studentId, GradingType.ASSIGNMENT, marks, feedback)));
+    }
+
+    // Grades a submission to a known assignment, so its gradings can be looked up by assignment
+    public void gradeAssignment(Long assignmentId, Long studentId, String marks, String feedback) {
+        if (findAssignmentById(assignmentId) == null) {
+            throw new IllegalArgumentException("Assignment not found.");
+        }
+        recordGradings(List.of(new Grading(assignmentId, studentId, GradingType.ASSIGNMENT, marks, feedback)));
     }
 
     // Get Gradings for assignments and quizzes
     public List<Grading> trackStudentPerformance(Long studentId) {
-        List<Grading> result = new ArrayList<>();
-        for (Grading grading : gradings) {
-            if (grading.getStudentId().equals(studentId)) {
-                result.add(grading);
-            }
-        }
-        return result;
+        return gradings.forStudent(studentId);
     }
 
     public List<Grading> trackStudentAssignments(Long studentId) {
-        List<Grading> assignmentGrades = new ArrayList<>();
-        for (Grading grading : gradings) {
-            if (grading.getStudentId().equals(studentId) && grading.getType().equals("Assignment")) {
-                assignmentGrades.add(grading);
-            }
-        }
-        return assignmentGrades;
+        return gradings.forStudent(studentId, GradingType.ASSIGNMENT);
     }
 
     public List<Grading> trackStudentQuizPerformance(Long studentId) {
-        List<Grading> quizGrades = new ArrayList<>();
-        for (Grading grading : gradings) {
-            if (grading.getStudentId().equals(studentId) && grading.getType().equals("quiz")) {
-                quizGrades.add(grading);
+        return gradings.forStudent(studentId, GradingType.QUIZ);
+    }
+
+    // Every grading of one quiz or assignment
+    public List<Grading> findGradings(GradingType type, Long assessmentId) {
+        return gradings.forAssessment(type, assessmentId);
+    }
+
+    /**
+     * What grading needs to know about a quiz. A shared quiz has one answer key; a per-student quiz
+     * keeps its bank snapshot and seed, and compiles a student's key from their draw the first time
+     * it is needed (usually their submission), so previews and grading reuse it.
+     */
+    // Per-student quizzes compile the whole bank snapshot once; each student's key is a selection over it
+    private record QuizDefinition(QuestionPartitions.Snapshot bank, int num, long seed, AnswerKey key,
+                                  AnswerKey bankKey, Map<Long, AnswerKey> keys) {
+
+        QuizDefinition(QuestionPartitions.Snapshot bank, int num, long seed, AnswerKey key) {
+            this(bank, num, seed, key,
+                    bank == null ? null : new AnswerKey(Arrays.asList(bank.items()).subList(0, bank.size())),
+                    bank == null ? Map.of() : new ConcurrentHashMap<>());
+        }
+
+        AnswerKey keyFor(Long studentId) {
+            return bank == null ? key : keys.computeIfAbsent(studentId, this::select);
+        }
+
+        private AnswerKey select(Long studentId) {
+            Question[] drawn = draw(studentId);
+            int[] slots = new int[drawn.length];
+            for (int i = 0; i < drawn.length; i++) {
+                slots[i] = bankKey.slotOf(drawn[i].getId());
             }
+            return bankKey.select(slots);
+        }
+
+        Question[] draw(Long studentId) {
+            return QuestionSampler.sample(bank.items(), 0, bank.size(), num, new SplittableRandom(seed ^ (studentId * 0x9E3779B97F4A7C15L)));
         }
-        return quizGrades;
     }
 }
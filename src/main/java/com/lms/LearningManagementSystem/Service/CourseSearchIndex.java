@@ -0,0 +1,241 @@
+package com.lms.LearningManagementSystem.Service;
+
+import com.lms.LearningManagementSystem.Model.Course;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over course title, description and instructor name.
+ * Kept up to date by CourseService on every create/update/delete and instructor change,
+ * and ranks matches with BM25. Only the requested page of results is ever materialized.
+ */
+public class CourseSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 2;      // title terms count twice towards term frequency
+    private static final int INSTRUCTOR_BOOST = 2; // so do instructor names
+    private static final int POOLED_BUFFERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private String[] courseIds = new String[64];
+    private Map<String, Integer>[] termFrequencies = newTermArray(64);
+    private int[] docLengths = new int[64];
+    private int nextDocId;
+    private int docCount;
+    private long totalLength;
+
+    // Pooled rather than per thread: requests run on virtual threads, each new, so a ThreadLocal
+    // buffer would be allocated at catalogue size on every search. Searches beyond the pool size
+    // get a buffer of their own that is dropped if the pool is full when they return it.
+    private final BlockingQueue<ScoreBuffer> scoreBuffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    public void index(Course course) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, course.getTitle(), TITLE_BOOST);
+        addTerms(frequencies, course.getDescription(), 1);
+        if (course.getInstructor() != null) {
+            addTerms(frequencies, course.getInstructor().getName(), INSTRUCTOR_BOOST);
+        }
+        int length = 0;
+        for (int tf : frequencies.values()) {
+            length += tf;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(course.getId());
+            int docId = freeDocIds.isEmpty() ? nextDocId++ : freeDocIds.pop();
+            ensureCapacity(docId + 1);
+            courseIds[docId] = course.getId();
+            termFrequencies[docId] = frequencies;
+            docLengths[docId] = length;
+            docIds.put(course.getId(), docId);
+            docCount++;
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(docId, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching courses for the given page, highest BM25 score first.
+     * Ties are broken by course id so paging is stable.
+     */
+    public List<String> search(String query, int page, int size) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty() || size <= 0 || page < 0) {
+            return Collections.emptyList();
+        }
+        int topK = (int) Math.min(Integer.MAX_VALUE, (long) page * size + size);
+
+        ScoreBuffer pooled = scoreBuffers.poll();
+        ScoreBuffer buffer = pooled != null ? pooled : new ScoreBuffer();
+        lock.readLock().lock();
+        try {
+            buffer.reset(nextDocId);
+            double averageLength = docCount == 0 ? 0 : (double) totalLength / docCount;
+            for (String term : new LinkedHashSet<>(terms)) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int docId = list.docs[i];
+                    int tf = list.freqs[i];
+                    double norm = K1 * (1 - B + B * docLengths[docId] / averageLength);
+                    buffer.add(docId, idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // Bounded min-heap: keep only the top (page + 1) * size hits
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(topK, Math.max(buffer.touchedCount, 1)) + 1,
+                    (a, b) -> compareHits(buffer, b, a));
+            for (int i = 0; i < buffer.touchedCount; i++) {
+                int docId = buffer.touched[i];
+                if (heap.size() < topK) {
+                    heap.offer(docId);
+                } else if (compareHits(buffer, docId, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.offer(docId);
+                }
+            }
+
+            String[] ranked = new String[heap.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = courseIds[heap.poll()];
+            }
+            int from = (int) Math.min((long) page * size, ranked.length);
+            return Arrays.asList(ranked).subList(from, ranked.length);
+        } finally {
+            lock.readLock().unlock();
+            scoreBuffers.offer(buffer);
+        }
+    }
+
+    // Negative when hit a ranks before hit b
+    private int compareHits(ScoreBuffer buffer, int a, int b) {
+        int byScore = Double.compare(buffer.scores[b], buffer.scores[a]);
+        return byScore != 0 ? byScore : courseIds[a].compareTo(courseIds[b]);
+    }
+
+    private void removeLocked(String courseId) {
+        Integer docId = docIds.remove(courseId);
+        if (docId == null) {
+            return;
+        }
+        for (String term : termFrequencies[docId].keySet()) {
+            PostingList list = postings.get(term);
+            list.remove(docId);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= docLengths[docId];
+        docCount--;
+        courseIds[docId] = null;
+        termFrequencies[docId] = null;
+        docLengths[docId] = 0;
+        freeDocIds.push(docId);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= courseIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, courseIds.length * 2);
+        courseIds = Arrays.copyOf(courseIds, newCapacity);
+        termFrequencies = Arrays.copyOf(termFrequencies, newCapacity);
+        docLengths = Arrays.copyOf(docLengths, newCapacity);
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer>[] newTermArray(int capacity) {
+        return (Map<String, Integer>[]) new Map[capacity];
+    }
+
+    // Unordered doc id / frequency pairs for a single term
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int docId, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = docId;
+            freqs[size] = tf;
+            size++;
+        }
+
+        void remove(int docId) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == docId) {
+                    size--;
+                    docs[i] = docs[size];
+                    freqs[i] = freqs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Score accumulator reused across queries to avoid allocating per request
+    private static final class ScoreBuffer {
+        private double[] scores = new double[0];
+        private boolean[] seen = new boolean[0];
+        private int[] touched = new int[16];
+        private int touchedCount;
+
+        void reset(int capacity) {
+            for (int i = 0; i < touchedCount; i++) {
+                seen[touched[i]] = false;
+                scores[touched[i]] = 0;
+            }
+            touchedCount = 0;
+            if (scores.length < capacity) {
+                scores = new double[capacity];
+                seen = new boolean[capacity];
+            }
+        }
+
+        void add(int docId, double score) {
+            if (!seen[docId]) {
+                seen[docId] = true;
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = docId;
+            }
+            scores[docId] += score;
+        }
+    }
+}
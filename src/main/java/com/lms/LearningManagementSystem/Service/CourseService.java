@@ -2,17 +2,23 @@ package com.lms.LearningManagementSystem.Service;
 
 import com.lms.LearningManagementSystem.Model.User.Admin;
 
+import com.lms.LearningManagementSystem.Model.AttendanceMatrix;
 import com.lms.LearningManagementSystem.Model.Course;
 import com.lms.LearningManagementSystem.Model.Lesson;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
+import com.lms.LearningManagementSystem.Model.User.Instructor;
+import com.lms.LearningManagementSystem.Model.User.Student;
 import com.lms.LearningManagementSystem.Model.User.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static com.lms.LearningManagementSystem.Service.UserService.UserService.requireRole;
 import static com.lms.LearningManagementSystem.Service.UserService.UserService.userStore;
 
 @Service
@@ -20,12 +26,22 @@ public class CourseService {
 
     private final AtomicLong courseIdGenerator = new AtomicLong(1);   // 🆕 For Course IDs
     private final AtomicLong lessonIdGenerator = new AtomicLong(1);   // 🆕 For Lesson IDs
-    private final List<Course> courses = new ArrayList<>();
+    // Keyed by course id: O(1) lookups, lock-free reads, and weakly consistent iteration that never blocks writers
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final CourseSearchIndex searchIndex = new CourseSearchIndex();
+    private final CourseTypeahead typeahead = new CourseTypeahead();
+    // Reverse indexes so a home page never has to scan the catalogue and its rosters
+    private final Map<Long, Set<String>> coursesByStudent = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> coursesByInstructor = new ConcurrentHashMap<>();
+    // Lesson ids are globally unique, so check-in can resolve its lesson without touching the course
+    private final Map<String, LessonLocation> lessonsById = new ConcurrentHashMap<>();
     private final NotificationService notificationService;
+    private final LessonCheckInService checkIns;
 
     @Autowired
-    public CourseService(@Lazy NotificationService notificationService) {
+    public CourseService(@Lazy NotificationService notificationService, LessonCheckInService checkIns) {
         this.notificationService = notificationService;
+        this.checkIns = checkIns;
     }
 
     private String generateCourseId() {
@@ -37,21 +53,17 @@ public class CourseService {
     }
 
     public Course createCourse(Long adminId, String title, String description, int duration) {
-        User user = userStore.get(adminId);
-        if (user == null || !(user instanceof Admin)) {
-            throw new IllegalArgumentException("Only admins can create courses.");
-        }
+        requireRole(adminId, Admin.class, "Only admins can create courses.");
         String courseId = generateCourseId();
         Course course = new Course(courseId, title, description, duration);
-        courses.add(course);
+        courses.put(courseId, course);
+        searchIndex.index(course);
+        typeahead.add(title);
         return course;
     }
 
     public Course findCourseById(String courseId) {
-        return courses.stream()
-                .filter(course -> course.getId().equals(courseId))
-                .findFirst()
-                .orElse(null);
+        return courseId != null ? courses.get(courseId) : null;
     }
 
     public boolean addMediaFile(String courseId, String mediaFile) {
@@ -69,33 +81,46 @@ public class CourseService {
             String lessonId = generateLessonId();
             Lesson lesson = new Lesson(lessonId, title, content);
             course.getLessons().add(lesson);
+            lessonsById.put(lessonId, new LessonLocation(course, lesson));
             return lesson;
         }
         return null;
     }
 
+    // Resolves a lesson in O(1), or null if it does not exist or belongs to another course
+    public LessonLocation findLesson(String courseId, String lessonId) {
+        LessonLocation location = lessonId != null ? lessonsById.get(lessonId) : null;
+        return location != null && location.course().getId().equals(courseId) ? location : null;
+    }
+
+    // Opens a check-in session for the lesson; the code rotates until the session closes
     public String generateOtp(String courseId, String lessonId) {
-        Course course = findCourseById(courseId);
-        if (course != null) {
-            for (Lesson lesson : course.getLessons()) {
-                if (lesson.getId().equals(lessonId)) {
-                    String otp = UUID.randomUUID().toString().substring(0, 6);
-                    lesson.setOtp(otp);
-                    return otp;
-                }
-            }
+        LessonLocation location = findLesson(courseId, lessonId);
+        return location != null ? checkIns.openSession(location.lesson()) : null;
+    }
+
+    public String getCurrentOtp(String courseId, String lessonId) {
+        LessonLocation location = findLesson(courseId, lessonId);
+        return location != null ? checkIns.currentOtp(lessonId) : null;
+    }
+
+    // Student self check-in: the OTP must be the lesson's current (or just rotated) code
+    public boolean checkIn(String courseId, String lessonId, Long studentId, String otp) {
+        LessonLocation location = findLesson(courseId, lessonId);
+        if (location == null) {
+            return false;
         }
-        return null;
+        int seat = location.course().getEnrolledStudents().seatOf(studentId);
+        return checkIns.checkIn(location.lesson(), seat, otp);
     }
 
     public boolean markAttendance(String courseId, String lessonId, String studentId, boolean present) {
-        Course course = findCourseById(courseId);
-        if (course != null && course.getEnrolledStudents().contains(Long.valueOf(studentId))) {
-            for (Lesson lesson : course.getLessons()) {
-                if (lesson.getId().equals(lessonId)) {
-                    lesson.markAttendance(studentId, present);
-                    return true;
-                }
+        LessonLocation location = findLesson(courseId, lessonId);
+        if (location != null) {
+            int seat = location.course().getEnrolledStudents().seatOf(Long.parseLong(studentId));
+            if (seat >= 0) {
+                location.lesson().markAttendance(seat, present);
+                return true;
             }
         }
         return false;
@@ -107,73 +132,193 @@ public class CourseService {
             throw new IllegalArgumentException("Course with ID " + courseId + " not found.");
         }
 
-        for (Lesson lesson : course.getLessons()) {
-            if (lesson.getId().equals(lessonId)) {
-                return lesson.getAttendance();
+        LessonLocation location = findLesson(courseId, lessonId);
+        if (location == null) {
+            throw new IllegalArgumentException("Lesson with ID " + lessonId + " not found in course " + courseId + ".");
+        }
+
+        checkIns.flush();
+        long[] studentsBySeat = course.getEnrolledStudents().studentsBySeat();
+        BitSet marked = location.lesson().markedSeats();
+        BitSet present = location.lesson().presentSeats();
+        Map<String, Boolean> attendance = new HashMap<>();
+        for (int seat = marked.nextSetBit(0); seat >= 0 && seat < studentsBySeat.length; seat = marked.nextSetBit(seat + 1)) {
+            attendance.put(String.valueOf(studentsBySeat[seat]), present.get(seat));
+        }
+        return attendance;
+    }
+
+    public AttendanceMatrix getAttendanceMatrix(String courseId) {
+        Course course = requireCourse(courseId);
+        long[] studentsBySeat = course.getEnrolledStudents().studentsBySeat();
+        List<Lesson> lessons = new ArrayList<>(course.getLessons());
+
+        char[][] cells = new char[studentsBySeat.length][lessons.size()];
+        for (char[] row : cells) {
+            Arrays.fill(row, '-');
+        }
+        long presentTotal = 0;
+        for (int l = 0; l < lessons.size(); l++) {
+            BitSet marked = lessons.get(l).markedSeats();
+            BitSet present = lessons.get(l).presentSeats();
+            presentTotal += present.cardinality();
+            for (int seat = marked.nextSetBit(0); seat >= 0 && seat < cells.length; seat = marked.nextSetBit(seat + 1)) {
+                cells[seat][l] = present.get(seat) ? 'P' : 'A';
             }
         }
 
-        throw new IllegalArgumentException("Lesson with ID " + lessonId + " not found in course " + courseId + ".");
+        List<String> lessonIds = new ArrayList<>(lessons.size());
+        for (Lesson lesson : lessons) {
+            lessonIds.add(lesson.getId());
+        }
+        List<Long> studentIds = new ArrayList<>(studentsBySeat.length);
+        List<String> rows = new ArrayList<>(studentsBySeat.length);
+        for (int seat = 0; seat < studentsBySeat.length; seat++) {
+            studentIds.add(studentsBySeat[seat]);
+            rows.add(new String(cells[seat]));
+        }
+        long slots = (long) lessons.size() * studentsBySeat.length;
+        return new AttendanceMatrix(lessonIds, studentIds, rows, slots == 0 ? 0 : (double) presentTotal / slots);
+    }
+
+    // Share of the course's lessons the student was present at, between 0 and 1
+    public double getAttendanceRate(String courseId, Long studentId) {
+        Course course = requireCourse(courseId);
+        int seat = course.getEnrolledStudents().seatOf(studentId);
+        if (seat < 0) {
+            throw new IllegalArgumentException("Student " + studentId + " is not enrolled in course " + courseId + ".");
+        }
+        List<Lesson> lessons = new ArrayList<>(course.getLessons());
+        if (lessons.isEmpty()) {
+            return 0;
+        }
+        int attended = 0;
+        for (Lesson lesson : lessons) {
+            attended += lesson.isPresent(seat) ? 1 : 0;
+        }
+        return (double) attended / lessons.size();
+    }
+
+    // Students whose attendance rate is below the given percentage
+    public List<Long> getStudentsBelowAttendance(String courseId, double thresholdPercent) {
+        Course course = requireCourse(courseId);
+        long[] studentsBySeat = course.getEnrolledStudents().studentsBySeat();
+        List<Lesson> lessons = new ArrayList<>(course.getLessons());
+
+        // Per-seat present counts, accumulated word by word from each lesson's bitset
+        int[] attended = new int[studentsBySeat.length];
+        for (Lesson lesson : lessons) {
+            long[] words = lesson.presentSeats().toLongArray();
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    int seat = (w << 6) + Long.numberOfTrailingZeros(word);
+                    if (seat < attended.length) {
+                        attended[seat]++;
+                    }
+                    word &= word - 1;
+                }
+            }
+        }
+
+        double required = thresholdPercent / 100.0 * lessons.size();
+        List<Long> result = new ArrayList<>();
+        for (int seat = 0; seat < studentsBySeat.length; seat++) {
+            if (attended[seat] < required) {
+                result.add(studentsBySeat[seat]);
+            }
+        }
+        return result;
+    }
+
+    // Also applies queued check-ins, since every caller goes on to read attendance
+    private Course requireCourse(String courseId) {
+        Course course = findCourseById(courseId);
+        if (course == null) {
+            throw new IllegalArgumentException("Course with ID " + courseId + " not found.");
+        }
+        checkIns.flush();
+        return course;
     }
 
     public List<Course> getAllCourses() {
-        return courses;
+        return new ArrayList<>(courses.values());
     }
 
     public List<Long> getEnrolledStudents(String courseId) {
         Course course = findCourseById(courseId);
-        return course != null ? course.getEnrolledStudents() : null;
+        return course != null ? course.getEnrolledStudents().toList() : null;
     }
 
-    public Course updateCourse(Long adminId, String courseId, String title, String description, int duration) {
-        User user = userStore.get(adminId);
-        if (user == null || !(user instanceof Admin)) {
-            throw new IllegalArgumentException("Only admins can update courses.");
+    // Students enrolled in both courses, e.g. to spot timetable clashes
+    public List<Long> getSharedStudents(String courseId, String otherCourseId) {
+        Course course = findCourseById(courseId);
+        Course otherCourse = findCourseById(otherCourseId);
+        if (course == null || otherCourse == null) {
+            throw new IllegalArgumentException("Course not found.");
         }
+        return course.getEnrolledStudents().and(otherCourse.getEnrolledStudents()).toList();
+    }
+
+    public CourseUpdate updateCourse(Long adminId, String courseId, String title, String description, int duration) {
+        requireRole(adminId, Admin.class, "Only admins can update courses.");
 
         Course course = findCourseById(courseId);
         if (course != null) {
+            String previousTitle = course.getTitle();
             course.setTitle(title);
             course.setDescription(description);
             course.setDuration(duration);
+            searchIndex.index(course);
+            typeahead.remove(previousTitle);
+            typeahead.add(title);
 
-            for (Long studentId : course.getEnrolledStudents()) {
-                notificationService.notifyUser(studentId,
-                        "The course " + course.getTitle() + " has been updated. Please check for new details.");
-            }
-            return course;
+            NotificationDelivery delivery = notificationService.broadcast(NotificationService.courseTopic(courseId), "updated",
+                    course.getEnrolledStudents(), "The course " + course.getTitle() + " has been updated. Please check for new details.");
+            return new CourseUpdate(course, delivery);
         }
         return null;
     }
 
-    public void deleteCourse(Long adminId, String courseId) {
-        User user = userStore.get(adminId);
-        if (user == null || !(user instanceof Admin)) {
-            throw new IllegalArgumentException("Only admins can delete courses.");
-        }
+    public NotificationDelivery deleteCourse(Long adminId, String courseId) {
+        requireRole(adminId, Admin.class, "Only admins can delete courses.");
 
         Course course = findCourseById(courseId);
         if (course == null) {
             throw new IllegalArgumentException("Course with ID " + courseId + " does not exist.");
         }
 
-        for (Long studentId : course.getEnrolledStudents()) {
-            notificationService.notifyUser(studentId,
-                    "The course " + course.getTitle() + " has been deleted.");
-        }
+        // A personal copy each: the course's broadcasts stop showing once it is gone
+        NotificationDelivery delivery = notificationService.notifyUsers(NotificationService.courseTopic(courseId), course.getEnrolledStudents().toArray(),
+                "The course " + course.getTitle() + " has been deleted.");
 
         if (course.getInstructor() != null) {
             notificationService.notifyUser(course.getInstructor().getId(),
                     "The course " + course.getTitle() + " you were assigned to teach has been deleted.");
         }
+        notificationService.dropTopic(NotificationService.courseTopic(courseId), course.getEnrolledStudents());
 
-        courses.remove(course);
+        courses.remove(courseId);
+        searchIndex.remove(courseId);
+        for (Lesson lesson : course.getLessons()) {
+            lessonsById.remove(lesson.getId());
+        }
+        typeahead.remove(course.getTitle());
+        for (long studentId : course.getEnrolledStudents().toArray()) {
+            unindex(coursesByStudent, studentId, courseId);
+        }
+        if (course.getInstructor() != null) {
+            typeahead.remove(course.getInstructor().getName());
+            unindex(coursesByInstructor, course.getInstructor().getId(), courseId);
+        }
+        return delivery;
     }
     public boolean bookmarkCourse(Long studentId, String courseId) {
-        User user = userStore.get(studentId);
+        requireRole(studentId, Student.class, "Only students can bookmark courses.");
+        User user = userStore.get(studentId); // the bookmarks live on the user
         Course course = findCourseById(courseId);
 
-        if (user == null || !(user.getRole().equalsIgnoreCase("student"))) {
+        if (user == null) {
             throw new IllegalArgumentException("Only students can bookmark courses.");
         }
         if (course == null) {
@@ -184,8 +329,9 @@ public class CourseService {
     }
 
     public Set<Course> getBookmarkedCourses(Long studentId) {
+        requireRole(studentId, Student.class, "Student not found.");
         User user = userStore.get(studentId);
-        if (user == null || !(user.getRole().equalsIgnoreCase("student"))) {
+        if (user == null) {
             throw new IllegalArgumentException("Student not found.");
         }
 
@@ -195,18 +341,96 @@ public class CourseService {
                 .collect(Collectors.toSet());
     }
 
+    // Atomically adds the student to the roster, records the enrollment in the reverse index
+    // and subscribes the student to the course's broadcasts. deleteCourse removes the course before
+    // it reads the roster, so re-checking after the index add settles a race with it: either the
+    // delete sees this student and unindexes them, or this sees the course gone and backs out.
+    public boolean enrollStudent(Course course, Long studentId) {
+        if (!course.getEnrolledStudents().add(studentId)) {
+            return false;
+        }
+        index(coursesByStudent, studentId, course.getId());
+        if (courses.get(course.getId()) != course) {
+            unindex(coursesByStudent, studentId, course.getId());
+            return false;
+        }
+        notificationService.subscribe(studentId, NotificationService.courseTopic(course.getId()));
+        return true;
+    }
+
+    // Keep search, typeahead and the instructor index in step after InstructorService swaps a course's instructor
+    public void onInstructorAssigned(Course course, Instructor previousInstructor) {
+        if (!courses.containsKey(course.getId())) {
+            return;
+        }
+        searchIndex.index(course);
+        if (previousInstructor != null) {
+            typeahead.remove(previousInstructor.getName());
+            unindex(coursesByInstructor, previousInstructor.getId(), course.getId());
+        }
+        if (course.getInstructor() != null) {
+            typeahead.add(course.getInstructor().getName());
+            index(coursesByInstructor, course.getInstructor().getId(), course.getId());
+        }
+    }
+
+    public List<Course> getCoursesForStudent(Long studentId) {
+        return resolve(coursesByStudent.get(studentId));
+    }
+
+    public List<Course> getCoursesForInstructor(Long instructorId) {
+        return resolve(coursesByInstructor.get(instructorId));
+    }
+
+    private List<Course> resolve(Set<String> courseIds) {
+        if (courseIds == null) {
+            return Collections.emptyList();
+        }
+        List<Course> result = new ArrayList<>(courseIds.size());
+        for (String courseId : courseIds) {
+            Course course = courses.get(courseId);
+            if (course != null) {
+                result.add(course);
+            }
+        }
+        return result;
+    }
+
+    // Inside the entry's compute, so it cannot add to a set that unindex is dropping as empty
+    private static void index(Map<Long, Set<String>> index, Long userId, String courseId) {
+        index.compute(userId, (id, courseIds) -> {
+            Set<String> updated = courseIds != null ? courseIds : ConcurrentHashMap.newKeySet();
+            updated.add(courseId);
+            return updated;
+        });
+    }
+
+    private static void unindex(Map<Long, Set<String>> index, Long userId, String courseId) {
+        index.computeIfPresent(userId, (id, courseIds) -> {
+            courseIds.remove(courseId);
+            return courseIds.isEmpty() ? null : courseIds;
+        });
+    }
+
     public List<Course> searchCourses(String keyword) {
-        String lowerKeyword = keyword.toLowerCase();
-        return courses.stream()
-                .filter(course ->
-                        course.getTitle().toLowerCase().contains(lowerKeyword) ||
-                                course.getDescription().toLowerCase().contains(lowerKeyword) ||
-                                (course.getInstructor() != null &&
-                                        course.getInstructor().getName().toLowerCase().contains(lowerKeyword))
-                )
+        return searchCourses(keyword, 0, Integer.MAX_VALUE);
+    }
+
+    public List<Course> searchCourses(String keyword, int page, int size) {
+        return searchIndex.search(keyword, page, size).stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    public List<String> suggestCourses(String prefix, int limit) {
+        return typeahead.suggest(prefix, limit);
+    }
 
+    // The delivery handle belongs to this update's broadcast, not to whatever the topic published last
+    public record CourseUpdate(Course course, NotificationDelivery delivery) {
+    }
 
+    public record LessonLocation(Course course, Lesson lesson) {
+    }
 }
@@ -0,0 +1,302 @@
+package com.lms.LearningManagementSystem.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index for catalogue typeahead over course titles and instructor names.
+ * Every word start of a phrase is a key in a compact trie, and each trie node caches the
+ * top suggestions of its subtree, so an exact prefix lookup is a walk plus an array copy.
+ * Prefixes that miss fall back to a bounded edit-distance walk (1 edit from 4 chars, 2 from 7).
+ */
+public class CourseTypeahead {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 32;
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingInt((Suggestion s) -> -s.weight)
+            .thenComparing(s -> s.text);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Suggestion> phrases = new HashMap<>();
+
+    // A course title or instructor name gained one more course referencing it
+    public void add(String phrase) {
+        adjust(phrase, 1);
+    }
+
+    // A course title or instructor name lost one of the courses referencing it
+    public void remove(String phrase) {
+        adjust(phrase, -1);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int max = Math.max(0, Math.min(limit, MAX_SUGGESTIONS));
+        if (normalized.isEmpty() || max == 0) {
+            return Collections.emptyList();
+        }
+        if (normalized.length() > MAX_KEY_LENGTH) {
+            normalized = normalized.substring(0, MAX_KEY_LENGTH);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<String> results = new ArrayList<>(max);
+            Node exact = find(normalized);
+            if (exact != null) {
+                for (int i = 0; i < exact.top.length && results.size() < max; i++) {
+                    results.add(exact.top[i].text);
+                }
+            }
+            int maxEdits = normalized.length() >= 7 ? 2 : normalized.length() >= 4 ? 1 : 0;
+            if (results.size() < max && maxEdits > 0) {
+                fuzzyFill(normalized, maxEdits, max, results);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adjust(String phrase, int delta) {
+        String normalized = normalize(phrase);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Suggestion current = phrases.get(normalized);
+            int weight = (current == null ? 0 : current.weight) + delta;
+            Suggestion updated = weight > 0
+                    ? new Suggestion(current == null ? phrase.trim() : current.text, normalized, weight)
+                    : null;
+            if (updated == null && current == null) {
+                return;
+            }
+            if (updated == null) {
+                phrases.remove(normalized);
+            } else {
+                phrases.put(normalized, updated);
+            }
+            for (String key : keysOf(normalized)) {
+                update(key, normalized, updated);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces (or removes) the phrase's terminal at the key, then rebuilds cached top lists bottom-up
+    private void update(String key, String normalized, Suggestion suggestion) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = suggestion != null ? path[i].childOrCreate(key.charAt(i)) : path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node leaf = path[key.length()];
+        leaf.terminals = replace(leaf.terminals, normalized, suggestion);
+
+        for (int depth = key.length(); depth >= 0; depth--) {
+            Node node = path[depth];
+            if (depth > 0 && node.isEmpty()) {
+                path[depth - 1].removeChild(key.charAt(depth - 1));
+                continue;
+            }
+            node.top = rank(node);
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    // Levenshtein walk over the trie; subtrees whose best row value exceeds maxEdits are pruned
+    private void fuzzyFill(String prefix, int maxEdits, int max, List<String> results) {
+        int width = prefix.length() + 1;
+        int[][] rows = new int[MAX_KEY_LENGTH + maxEdits + 1][width];
+        for (int j = 0; j < width; j++) {
+            rows[0][j] = j;
+        }
+        Map<String, Integer> bestEdits = new HashMap<>();
+        Map<String, Suggestion> candidates = new HashMap<>();
+        walk(root, prefix, rows, 0, maxEdits, bestEdits, candidates);
+
+        Set<String> taken = new HashSet<>(results);
+        candidates.values().stream()
+                .filter(s -> !taken.contains(s.text))
+                .sorted(Comparator.comparingInt((Suggestion s) -> bestEdits.get(s.key)).thenComparing(RANKING))
+                .limit(max - results.size())
+                .forEach(s -> results.add(s.text));
+    }
+
+    private void walk(Node node, String prefix, int[][] rows, int depth, int maxEdits,
+                      Map<String, Integer> bestEdits, Map<String, Suggestion> candidates) {
+        if (depth + 1 >= rows.length) {
+            return;
+        }
+        int[] previous = rows[depth];
+        int[] row = rows[depth + 1];
+        for (int c = 0; c < node.labels.length; c++) {
+            char label = node.labels[c];
+            row[0] = previous[0] + 1;
+            int best = row[0];
+            for (int j = 1; j < row.length; j++) {
+                int substitution = previous[j - 1] + (prefix.charAt(j - 1) == label ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previous[j] + 1, row[j - 1] + 1));
+                best = Math.min(best, row[j]);
+            }
+            Node child = node.children[c];
+            int distance = row[row.length - 1];
+            if (distance <= maxEdits) {
+                for (Suggestion suggestion : child.top) {
+                    Integer known = bestEdits.get(suggestion.key);
+                    if (known == null || distance < known) {
+                        bestEdits.put(suggestion.key, distance);
+                        candidates.put(suggestion.key, suggestion);
+                    }
+                }
+            } else if (best <= maxEdits) {
+                walk(child, prefix, rows, depth + 1, maxEdits, bestEdits, candidates);
+            }
+        }
+    }
+
+    private static Suggestion[] rank(Node node) {
+        Map<String, Suggestion> merged = new HashMap<>();
+        for (Suggestion suggestion : node.terminals) {
+            merged.put(suggestion.key, suggestion);
+        }
+        for (Node child : node.children) {
+            for (Suggestion suggestion : child.top) {
+                merged.put(suggestion.key, suggestion);
+            }
+        }
+        if (merged.isEmpty()) {
+            return NO_SUGGESTIONS;
+        }
+        return merged.values().stream()
+                .sorted(RANKING)
+                .limit(MAX_SUGGESTIONS)
+                .toArray(Suggestion[]::new);
+    }
+
+    private static Suggestion[] replace(Suggestion[] terminals, String normalized, Suggestion suggestion) {
+        List<Suggestion> list = new ArrayList<>(terminals.length + 1);
+        for (Suggestion terminal : terminals) {
+            if (!terminal.key.equals(normalized)) {
+                list.add(terminal);
+            }
+        }
+        if (suggestion != null) {
+            list.add(suggestion);
+        }
+        return list.isEmpty() ? NO_SUGGESTIONS : list.toArray(new Suggestion[0]);
+    }
+
+    // One key per word start, so "Intro to Java" is found by "java" as well as "intro"
+    private static Set<String> keysOf(String normalized) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                String key = normalized.substring(i);
+                keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            }
+        }
+        return keys;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(Character.toLowerCase(c));
+            } else if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ' ') {
+                builder.append(' ');
+            }
+        }
+        int end = builder.length();
+        return end > 0 && builder.charAt(end - 1) == ' ' ? builder.substring(0, end - 1) : builder.toString();
+    }
+
+    private static final class Suggestion {
+        private final String text;
+        private final String key;
+        private final int weight;
+
+        private Suggestion(String text, String key, int weight) {
+            this.text = text;
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    // Children are kept in sorted parallel arrays rather than a map to keep nodes small
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Suggestion[] top = NO_SUGGESTIONS;
+        private Suggestion[] terminals = NO_SUGGESTIONS;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            Node child = new Node();
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels.length == 0 ? NO_LABELS : newLabels;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        boolean isEmpty() {
+            return terminals.length == 0 && children.length == 0;
+        }
+    }
+}
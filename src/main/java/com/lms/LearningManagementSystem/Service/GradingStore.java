@@ -0,0 +1,91 @@
+package com.lms.LearningManagementSystem.Service;
+
+import com.lms.LearningManagementSystem.Model.Assessment.Grading;
+import com.lms.LearningManagementSystem.Model.Assessment.GradingType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gradings indexed by student, by (student, type) and by assessment, so each lookup copies only
+ * the gradings it returns instead of scanning every grading ever recorded. A grading's id is the
+ * id of the quiz or assignment it grades; quiz and assignment ids overlap, so the assessment index
+ * is keyed by type as well.
+ * <p>
+ * Each student's lists are guarded by their own lock and each assessment's by its own, so grading
+ * workers writing batches for different students and quizzes do not wait on one global lock.
+ */
+public class GradingStore {
+
+    private final Map<Long, StudentGradings> byStudent = new ConcurrentHashMap<>();
+    private final Map<AssessmentKey, List<Grading>> byAssessment = new ConcurrentHashMap<>();
+
+    public void add(Grading grading) {
+        addAll(List.of(grading));
+    }
+
+    // A grading batch usually covers one assessment: its list is locked once for the whole batch
+    public void addAll(Collection<Grading> batch) {
+        Map<AssessmentKey, List<Grading>> grouped = new HashMap<>();
+        for (Grading grading : batch) {
+            StudentGradings student = byStudent.computeIfAbsent(grading.getStudentId(), id -> new StudentGradings());
+            synchronized (student) {
+                student.all.add(grading);
+                student.byType.computeIfAbsent(grading.getType(), type -> new ArrayList<>()).add(grading);
+            }
+            grouped.computeIfAbsent(new AssessmentKey(grading.getType(), grading.getId()), key -> new ArrayList<>())
+                    .add(grading);
+        }
+        for (Map.Entry<AssessmentKey, List<Grading>> entry : grouped.entrySet()) {
+            List<Grading> assessment = byAssessment.computeIfAbsent(entry.getKey(), key -> new ArrayList<>());
+            synchronized (assessment) {
+                assessment.addAll(entry.getValue());
+            }
+        }
+    }
+
+    // In the order they were recorded
+    public List<Grading> forStudent(Long studentId) {
+        StudentGradings student = byStudent.get(studentId);
+        if (student == null) {
+            return new ArrayList<>();
+        }
+        synchronized (student) {
+            return new ArrayList<>(student.all);
+        }
+    }
+
+    public List<Grading> forStudent(Long studentId, GradingType type) {
+        StudentGradings student = byStudent.get(studentId);
+        if (student == null) {
+            return new ArrayList<>();
+        }
+        synchronized (student) {
+            List<Grading> gradings = student.byType.get(type);
+            return gradings == null ? new ArrayList<>() : new ArrayList<>(gradings);
+        }
+    }
+
+    public List<Grading> forAssessment(GradingType type, Long assessmentId) {
+        List<Grading> assessment = byAssessment.get(new AssessmentKey(type, assessmentId));
+        if (assessment == null) {
+            return new ArrayList<>();
+        }
+        synchronized (assessment) {
+            return new ArrayList<>(assessment);
+        }
+    }
+
+    private record AssessmentKey(GradingType type, Long id) {
+    }
+
+    private static final class StudentGradings {
+        private final List<Grading> all = new ArrayList<>();
+        private final Map<GradingType, List<Grading>> byType = new EnumMap<>(GradingType.class);
+    }
+}
@@ -0,0 +1,223 @@
+package com.lms.LearningManagementSystem.Service;
+
+import com.lms.LearningManagementSystem.Model.Lesson;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lesson check-in: time-limited, rotating OTPs and batched attendance writes.
+ * <p>
+ * Opening a session issues a code that rotates every rotation period until the session window
+ * closes; the previous code stays valid for one more period so students typing it are not turned
+ * away. Rotations and expiry are driven by a single {@link TimingWheel}. Validation is a lock-free
+ * read of an immutable session snapshot, and accepted check-ins are queued and applied to each
+ * lesson's attendance bitsets in batches rather than one synchronized write per request.
+ * <p>
+ * A student who enters too many wrong codes for a lesson is turned away until the code rotates,
+ * so a six-digit code cannot be guessed within its lifetime.
+ */
+@Service
+public class LessonCheckInService {
+
+    private static final Logger log = LoggerFactory.getLogger(LessonCheckInService.class);
+    private static final int OTP_BOUND = 1_000_000;
+    private static final int MAX_FAILED_ATTEMPTS = 5; // per student and lesson, within one rotation period
+    private static final int BATCH_SIZE = 512;
+    private static final long WHEEL_TICK_MILLIS = 1_000;
+    private static final int WHEEL_SLOTS = 512;
+
+    private final long windowMillis;
+    private final long rotationMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, CheckInSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, FailedAttempts>> failuresByLesson = new ConcurrentHashMap<>(); // by seat
+    private final Queue<PendingCheckIn> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong acceptedCheckIns = new AtomicLong();
+    private final AtomicLong rejectedCheckIns = new AtomicLong();
+    private final AtomicLong throttledCheckIns = new AtomicLong();
+    private final TimingWheel wheel;
+    private final ScheduledExecutorService driver;
+
+    @Autowired
+    public LessonCheckInService(@Value("${lms.attendance.otp-window-seconds:900}") long windowSeconds,
+                                @Value("${lms.attendance.otp-rotation-seconds:60}") long rotationSeconds,
+                                @Value("${lms.attendance.flush-millis:50}") long flushMillis) {
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.rotationMillis = TimeUnit.SECONDS.toMillis(rotationSeconds);
+        this.wheel = new TimingWheel(WHEEL_TICK_MILLIS, WHEEL_SLOTS, System.currentTimeMillis(), lessonId -> {
+            try {
+                onTimer(lessonId);
+            } catch (RuntimeException e) { // the rest of the slot still fires
+                log.error("Check-in timer failed for lesson {}", lessonId, e);
+            }
+        });
+        this.driver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lesson-check-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        driver.scheduleAtFixedRate(logged("tick", () -> wheel.advance(System.currentTimeMillis())),
+                WHEEL_TICK_MILLIS, WHEEL_TICK_MILLIS, TimeUnit.MILLISECONDS);
+        driver.scheduleWithFixedDelay(logged("flush", this::flush), flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // A periodic task that throws is never run again, so failures are logged and the schedule carries on
+    private static Runnable logged(String task, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("Lesson check-in {} failed", task, e);
+            }
+        };
+    }
+
+    // Opens (or restarts) check-in for the lesson and returns the first code
+    public String openSession(Lesson lesson) {
+        long now = System.currentTimeMillis();
+        CheckInSession session = new CheckInSession(lesson, newCode(), null, now, now + windowMillis);
+        sessions.put(lesson.getId(), session);
+        failuresByLesson.remove(lesson.getId());
+        lesson.setOtp(session.code());
+        wheel.schedule(lesson.getId(), session.nextEventAt(rotationMillis));
+        return session.code();
+    }
+
+    // Code currently shown to the class, or null once the session has closed
+    public String currentOtp(String lessonId) {
+        CheckInSession session = sessions.get(lessonId);
+        return session != null && System.currentTimeMillis() < session.closesAt() ? session.code() : null;
+    }
+
+    public boolean isValid(String lessonId, String otp) {
+        CheckInSession session = sessions.get(lessonId);
+        if (session == null || otp == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= session.closesAt()) {
+            return false;
+        }
+        return otp.equals(session.code())
+                || (otp.equals(session.previousCode()) && now < session.rotatedAt() + rotationMillis);
+    }
+
+    // Validates the code and queues the seat; the lesson's bitsets are updated on the next flush
+    public boolean checkIn(Lesson lesson, int seat, String otp) {
+        if (seat < 0) {
+            rejectedCheckIns.incrementAndGet();
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Map<Integer, FailedAttempts> failures = failuresByLesson.get(lesson.getId());
+        FailedAttempts failed = failures == null ? null : failures.get(seat);
+        if (failed != null && failed.blocks(now, rotationMillis)) {
+            throttledCheckIns.incrementAndGet();
+            rejectedCheckIns.incrementAndGet();
+            return false;
+        }
+        if (!isValid(lesson.getId(), otp)) {
+            rejectedCheckIns.incrementAndGet();
+            if (sessions.containsKey(lesson.getId())) { // nothing to guess without an open session
+                failuresByLesson.computeIfAbsent(lesson.getId(), id -> new ConcurrentHashMap<>())
+                        .merge(seat, new FailedAttempts(now, 1), (previous, next) -> previous.plus(now, rotationMillis));
+            }
+            return false;
+        }
+        pending.add(new PendingCheckIn(lesson, seat));
+        acceptedCheckIns.incrementAndGet();
+        if (pendingCount.incrementAndGet() >= BATCH_SIZE && flushRequested.compareAndSet(false, true)) {
+            driver.execute(logged("flush", this::flush));
+        }
+        return true;
+    }
+
+    // Applies every queued check-in; readers call this before looking at attendance
+    public synchronized void flush() {
+        flushRequested.set(false);
+        Map<Lesson, BitSet> batches = new IdentityHashMap<>();
+        PendingCheckIn checkIn;
+        while ((checkIn = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batches.computeIfAbsent(checkIn.lesson(), lesson -> new BitSet()).set(checkIn.seat());
+        }
+        batches.forEach(Lesson::markPresent);
+    }
+
+    public long getAcceptedCheckIns() {
+        return acceptedCheckIns.get();
+    }
+
+    public long getRejectedCheckIns() {
+        return rejectedCheckIns.get();
+    }
+
+    // Rejected without checking the code, after too many wrong ones
+    public long getThrottledCheckIns() {
+        return throttledCheckIns.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        driver.shutdown();
+        flush();
+    }
+
+    // Wheel callback: rotate the code, or drop the session once its window has closed
+    private void onTimer(String lessonId) {
+        CheckInSession session = sessions.get(lessonId);
+        long now = System.currentTimeMillis();
+        if (session == null || now < session.nextEventAt(rotationMillis)) {
+            return; // stale entry from a session that was reopened
+        }
+        if (now >= session.closesAt()) {
+            if (sessions.remove(lessonId, session)) {
+                failuresByLesson.remove(lessonId);
+                session.lesson().setOtp(null);
+            }
+            return;
+        }
+        CheckInSession rotated = new CheckInSession(session.lesson(), newCode(), session.code(), now, session.closesAt());
+        if (sessions.replace(lessonId, session, rotated)) {
+            rotated.lesson().setOtp(rotated.code());
+            wheel.schedule(lessonId, rotated.nextEventAt(rotationMillis));
+        }
+    }
+
+    private String newCode() {
+        return String.format("%06d", random.nextInt(OTP_BOUND));
+    }
+
+    private record CheckInSession(Lesson lesson, String code, String previousCode, long rotatedAt, long closesAt) {
+        long nextEventAt(long rotationMillis) {
+            return Math.min(rotatedAt + rotationMillis, closesAt);
+        }
+    }
+
+    private record PendingCheckIn(Lesson lesson, int seat) {
+    }
+
+    // Wrong codes from one seat since the start of the current period
+    private record FailedAttempts(long since, int count) {
+        boolean blocks(long now, long periodMillis) {
+            return count >= MAX_FAILED_ATTEMPTS && now < since + periodMillis;
+        }
+
+        FailedAttempts plus(long now, long periodMillis) {
+            return now < since + periodMillis ? new FailedAttempts(since, count + 1) : new FailedAttempts(now, 1);
+        }
+    }
+}
@@ -1,38 +1,176 @@
 package com.lms.LearningManagementSystem.Service;
 
+import com.lms.LearningManagementSystem.Model.BroadcastNotification;
+import com.lms.LearningManagementSystem.Model.EnrollmentRoster;
 import com.lms.LearningManagementSystem.Model.Notification;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
+import com.lms.LearningManagementSystem.Model.NotificationInbox;
 import com.lms.LearningManagementSystem.Model.User.User;
 import com.lms.LearningManagementSystem.Service.UserService.UserService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.LongConsumer;
 
 @Service
 public class NotificationService {
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+    private static final int BATCH_SIZE = 256;
+    private static final int TRACKED_DELIVERIES = 1_000;
+    private static final long ENQUEUE_TIMEOUT_MILLIS = 50;
+
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private final AtomicLong deliveryIdGenerator = new AtomicLong(1);
     private final UserService users;  // Inject UserService instead of Map
+    private final NotificationStreams streams;
+    private final int inboxCapacity;
+    private final Map<Long, NotificationInbox> inboxes = new ConcurrentHashMap<>();
+
+    // Fan-out pipeline: recipients are split into batches and delivered by worker threads off the request path.
+    // It carries the live pushes of broadcasts to open streams and the personal copies sent by notifyUsers.
+    private final BlockingQueue<DeliveryBatch> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Map<String, NotificationDelivery> deliveries = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, NotificationDelivery> eldest) {
+                    return size() > TRACKED_DELIVERIES;
+                }
+            });
+    private final AtomicLong pendingRecipients = new AtomicLong();
+    private final AtomicLong deliveredRecipients = new AtomicLong();
+    private final AtomicLong failedRecipients = new AtomicLong();
+    private final AtomicLong deliveredBatches = new AtomicLong();
+    private final AtomicLong callerRunBatches = new AtomicLong();
+    private final AtomicLong totalLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    // Fan-out-on-read: course-wide events are stored once per topic and merged into feeds when read.
+    // Each topic keeps its latest inbox-capacity broadcasts, none older than the retention period.
+    private final long broadcastRetentionMillis;
+    private final Map<Long, Set<String>> topicsByUser = new ConcurrentHashMap<>();
+    private final Map<String, BroadcastLog> broadcastsByTopic = new ConcurrentHashMap<>();
+    private final Map<String, BroadcastNotification> broadcastsById = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> supersededByTopic = new ConcurrentHashMap<>();
+
+    // Coalescing: repeated events with the same key replace an unread notification instead of adding one,
+    // and users on digest get their personal notifications batched into one per interval
+    private final long coalesceWindowMillis;
+    private final Map<Long, Map<String, String>> digests = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong digestKeys = new AtomicLong();
+    private final AtomicLong requestedNotifications = new AtomicLong();
+    private final AtomicLong writtenNotifications = new AtomicLong();
+    private final AtomicLong coalescedNotifications = new AtomicLong();
+    private final AtomicLong digestedNotifications = new AtomicLong();
 
     @Autowired
-    public NotificationService(@Lazy UserService userService) {
+    public NotificationService(@Lazy UserService userService,
+                               NotificationStreams streams,
+                               @Value("${lms.notifications.queue-capacity:1024}") int queueCapacity,
+                               @Value("${lms.notifications.workers:4}") int workerCount,
+                               @Value("${lms.notifications.inbox-capacity:500}") int inboxCapacity,
+                               @Value("${lms.notifications.coalesce-window-seconds:300}") long coalesceWindowSeconds,
+                               @Value("${lms.notifications.digest-interval-seconds:3600}") long digestIntervalSeconds,
+                               @Value("${lms.notifications.broadcast-retention-days:30}") long broadcastRetentionDays) {
         this.users = userService;
+        this.streams = streams;
+        this.inboxCapacity = inboxCapacity;
+        this.coalesceWindowMillis = TimeUnit.SECONDS.toMillis(coalesceWindowSeconds);
+        this.broadcastRetentionMillis = TimeUnit.DAYS.toMillis(broadcastRetentionDays);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("notification-worker-" + i).start(this::runWorker));
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::flushDigests,
+                digestIntervalSeconds, digestIntervalSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::expireBroadcasts, 1, 1, TimeUnit.HOURS); // topics that went quiet
+    }
+
+    public static String courseTopic(String courseId) {
+        return "course:" + courseId;
     }
 
     private String generateId() {
         return String.valueOf(idGenerator.getAndIncrement());
     }
 
+    // Personal notifications merged with the broadcasts of every topic the user follows, oldest first
     public List<Notification> getNotifications(Long userId, boolean onlyUnread) {
+        return getNotifications(userId, onlyUnread, -1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cursor-paginated feed: up to limit notifications with an id greater than after, oldest first.
+     * Ids increase monotonically, so the last id of a page is the cursor for the next one.
+     */
+    public List<Notification> getNotifications(Long userId, boolean onlyUnread, long after, int limit) {
         User user = users.getUserById(userId);  // Fetch the user from UserService
-        if (user != null) {
-            return onlyUnread
-                    ? user.getNotifications().stream().filter(n -> !n.isRead()).collect(Collectors.toList())
-                    : user.getNotifications();
+        if (user == null) {
+            return Collections.emptyList();
+        }
+
+        NotificationInbox inbox = inboxes.get(userId);
+        List<Notification> feed = inbox == null ? new ArrayList<>() : inbox.page(after, limit, onlyUnread);
+        for (String topic : topicsByUser.getOrDefault(userId, Set.of())) {
+            List<BroadcastNotification> broadcasts = broadcastsOf(topic);
+            int added = 0;
+            for (int i = Math.max(firstVisible(broadcasts, userId), firstAfter(broadcasts, after));
+                 i < broadcasts.size() && added < limit; i++) {
+                BroadcastNotification broadcast = broadcasts.get(i);
+                boolean read = inbox != null && inbox.hasReadBroadcast(Long.parseLong(broadcast.getId()));
+                if (broadcast.isSuperseded() && !read) {
+                    continue; // its successor stands in for it
+                }
+                Notification notification = broadcast.toNotification(read);
+                if (!onlyUnread || !notification.isRead()) {
+                    feed.add(notification);
+                    added++;
+                }
+            }
         }
-        return Collections.emptyList();
+        feed.sort(Comparator.comparingLong(notification -> Long.parseLong(notification.getId())));
+        return feed.size() > limit ? new ArrayList<>(feed.subList(0, limit)) : feed;
+    }
+
+    // Unread personal notifications plus unread broadcasts, without building the feed; -1 if the user is unknown
+    public int getUnreadCount(Long userId) {
+        if (users.getUserById(userId) == null) {
+            return -1;
+        }
+        NotificationInbox inbox = inboxes.get(userId);
+        long watermark = inbox == null ? -1 : inbox.getWatermark();
+        int unread = inbox == null ? 0
+                : inbox.getUnreadCount() - inbox.countBroadcastReads(id -> broadcastsById.containsKey(String.valueOf(id)));
+        for (String topic : topicsByUser.getOrDefault(userId, Set.of())) {
+            List<BroadcastNotification> broadcasts = broadcastsOf(topic);
+            int first = Math.max(firstVisible(broadcasts, userId), firstAfter(broadcasts, watermark));
+            unread += broadcasts.size() - first;
+            NavigableSet<Long> superseded = supersededByTopic.get(topic);
+            if (superseded != null && first < broadcasts.size()) {
+                for (long id : superseded.tailSet(Long.parseLong(broadcasts.get(first).getId()), true)) {
+                    if (inbox == null || !inbox.hasReadBroadcast(id)) {
+                        unread--; // hidden behind its successor
+                    }
+                }
+            }
+        }
+        return unread;
     }
 
     public int markNotificationAsRead(Long userId, String notificationId) {
@@ -40,22 +178,457 @@ public class NotificationService {
         if (user == null) {
             return -1; // user not found
         }
+        return markAsRead(userId, inbox(userId), notificationId) ? 1 : 0;
+    }
+
+    // Marks every listed notification read in one call; returns how many were found, or -1 if the user is unknown
+    public int markNotificationsAsRead(Long userId, Collection<String> notificationIds) {
+        if (users.getUserById(userId) == null) {
+            return -1;
+        }
+        NotificationInbox inbox = inbox(userId);
+        int marked = 0;
+        for (String notificationId : notificationIds) {
+            if (markAsRead(userId, inbox, notificationId)) {
+                marked++;
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * Marks everything up to and including the cursor as read, or everything so far without one.
+     * A cursor past the latest issued id is clamped to it, so notifications that do not exist yet
+     * can never be pre-read. Returns the new read watermark.
+     */
+    public long markAllAsRead(Long userId, Long upTo) {
+        if (users.getUserById(userId) == null) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        long latest = idGenerator.get() - 1;
+        return inbox(userId).markAllReadUpTo(upTo != null ? Math.min(upTo, latest) : latest);
+    }
+
+    private boolean markAsRead(Long userId, NotificationInbox inbox, String notificationId) {
+        if (inbox.markAsRead(notificationId)) {
+            return true;
+        }
 
-        return user.getNotifications().stream()
-                .filter(notification -> notification.getId().equals(notificationId))
-                .findFirst()
-                .map(notification -> {
-                    notification.markAsRead();
-                    return 1; // success
-                })
-                .orElse(0); // notification not found for this user
+        BroadcastNotification broadcast = broadcastsById.get(notificationId);
+        if (broadcast == null
+                || !topicsByUser.getOrDefault(userId, Set.of()).contains(broadcast.getTopic())
+                || !broadcast.isVisibleTo(userId)) {
+            return false; // notification not found for this user
+        }
+        inbox.recordBroadcastRead(Long.parseLong(broadcast.getId()));
+        return true;
     }
 
+    // Called on enrollment so the user's feed picks up the topic's broadcasts
+    public void subscribe(Long userId, String topic) {
+        topicsByUser.compute(userId, (id, topics) -> {
+            Set<String> subscribed = topics != null ? topics : ConcurrentHashMap.newKeySet();
+            subscribed.add(topic);
+            return subscribed;
+        });
+        streams.follow(userId, topic);
+    }
+
+    /**
+     * Ends a topic, e.g. when its course is deleted: its broadcasts leave every feed and the
+     * audience stops following it.
+     */
+    public void dropTopic(String topic, EnrollmentRoster audience) {
+        for (long userId : audience.toArray()) {
+            topicsByUser.computeIfPresent(userId, (id, topics) -> {
+                topics.remove(topic);
+                return topics.isEmpty() ? null : topics;
+            });
+        }
+        BroadcastLog log = broadcastsByTopic.remove(topic);
+        if (log != null) {
+            synchronized (log) {
+                log.view().forEach(broadcast -> broadcastsById.remove(broadcast.getId()));
+            }
+        }
+        supersededByTopic.remove(topic);
+        streams.dropTopic(topic);
+    }
+
+    /**
+     * Publishes one message to everyone currently on the roster. Nothing is copied per recipient:
+     * feeds pick the broadcast up as soon as it is stored. Recipients holding an open stream also get
+     * it pushed, through the delivery workers; the returned handle tracks those pushes. When the
+     * topic's latest broadcast is of the same kind and recent, the new one supersedes it: recipients
+     * who have not read the old one yet see only the new one, under its own id.
+     */
+    public NotificationDelivery broadcast(String topic, String kind, EnrollmentRoster audience, String message) {
+        requestedNotifications.incrementAndGet();
+        BroadcastLog log = broadcastsByTopic.computeIfAbsent(topic, key -> new BroadcastLog());
+        BroadcastNotification broadcast;
+        synchronized (log) { // keep each topic's log in id order
+            long now = System.currentTimeMillis();
+            List<BroadcastNotification> broadcasts = log.view();
+            BroadcastNotification latest = broadcasts.isEmpty() ? null : broadcasts.get(broadcasts.size() - 1);
+            broadcast = new BroadcastNotification(generateId(), topic, kind, message, audience);
+            if (latest != null && latest.canBeSupersededBy(kind, now, coalesceWindowMillis)) {
+                latest.supersede(broadcast.getId());
+                supersededByTopic.computeIfAbsent(topic, key -> new ConcurrentSkipListSet<>())
+                        .add(Long.parseLong(latest.getId()));
+                coalescedNotifications.incrementAndGet();
+            } else {
+                writtenNotifications.incrementAndGet();
+            }
+            log.append(broadcast);
+            broadcastsById.put(broadcast.getId(), broadcast);
+            expire(topic, log, now);
+        }
+
+        // Only subscribers holding a stream need a view pushed to them
+        BroadcastNotification published = broadcast;
+        long[] recipients = streams.connectedUsers(topic).stream()
+                .filter(published::isVisibleTo)
+                .mapToLong(Long::longValue)
+                .toArray();
+        Notification view = broadcast.toNotification(false);
+        return dispatch(topic, recipients, userId -> streams.publish(userId, view));
+    }
+
+    // Scheduler entry point; also handy for tests
+    public void expireBroadcasts() {
+        long now = System.currentTimeMillis();
+        broadcastsByTopic.forEach((topic, log) -> {
+            synchronized (log) {
+                expire(topic, log, now);
+            }
+        });
+    }
+
+    // Drops the topic's oldest broadcasts beyond the count or age limit; the caller holds the log's lock
+    private void expire(String topic, BroadcastLog log, long now) {
+        List<BroadcastNotification> broadcasts = log.view();
+        int expired = Math.max(0, broadcasts.size() - inboxCapacity);
+        while (expired < broadcasts.size() && now - broadcasts.get(expired).getCreatedAt() > broadcastRetentionMillis) {
+            expired++;
+        }
+        if (expired == 0) {
+            return;
+        }
+        List<BroadcastNotification> head = broadcasts.subList(0, expired);
+        head.forEach(broadcast -> broadcastsById.remove(broadcast.getId()));
+        NavigableSet<Long> superseded = supersededByTopic.get(topic);
+        if (superseded != null) {
+            superseded.headSet(Long.parseLong(head.get(expired - 1).getId()), true).clear();
+        }
+        log.dropFirst(expired);
+    }
+
+    // The topic's current snapshot: stable while expiry moves on, and nothing is copied to read it
+    private List<BroadcastNotification> broadcastsOf(String topic) {
+        BroadcastLog log = broadcastsByTopic.get(topic);
+        return log == null ? List.of() : log.view();
+    }
+
+    /**
+     * Opens a push stream of the user's notifications. With a last-seen id the client first receives
+     * everything newer than it that is still retained, then live notifications.
+     */
+    public SseEmitter openStream(Long userId, String lastEventId) {
+        if (users.getUserById(userId) == null) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        long lastSeen;
+        try {
+            lastSeen = lastEventId == null || lastEventId.isBlank() ? -1 : Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid last event id: " + lastEventId);
+        }
+
+        NotificationStreams.Stream stream = streams.open(userId, topicsByUser.getOrDefault(userId, Set.of()));
+        try {
+            stream.getEmitter().send(SseEmitter.event().comment("connected")); // flushes the response headers
+        } catch (IOException e) {
+            stream.getEmitter().completeWithError(e);
+            return stream.getEmitter();
+        }
+        if (lastSeen >= 0) {
+            for (Notification notification : getNotifications(userId, false)) {
+                if (Long.parseLong(notification.getId()) > lastSeen) {
+                    stream.replay(notification);
+                }
+            }
+        }
+        stream.startLive();
+        return stream.getEmitter();
+    }
 
     public void notifyUser(Long userId, String message) {
+        notifyUser(userId, null, message);
+    }
+
+    /**
+     * Notifies the user, coalescing with earlier events of the same key (e.g. one course's
+     * enrollments): while the previous one is unread and inside the window, its text is replaced
+     * instead of adding a notification. A null key never coalesces.
+     */
+    public void notifyUser(Long userId, String coalesceKey, String message) {
         User user = users.getUserById(userId);
-        if (user != null) {
-            user.addNotification(new Notification(generateId(), message));
+        if (user == null) {
+            return;
+        }
+        requestedNotifications.incrementAndGet();
+
+        Map<String, String> digest = digests.get(userId);
+        if (digest != null) {
+            synchronized (digest) {
+                if (digests.get(userId) == digest) {
+                    digest.put(coalesceKey != null ? coalesceKey : "#" + digestKeys.incrementAndGet(), message);
+                    digestedNotifications.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        store(userId, coalesceKey, message);
+    }
+
+    // Batch this user's personal notifications into one digest per interval, or stop doing so
+    public void setDigest(Long userId, boolean enabled) {
+        if (users.getUserById(userId) == null) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        if (enabled) {
+            digests.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+        } else {
+            Map<String, String> digest = digests.remove(userId);
+            if (digest != null) {
+                flushDigest(userId, digest);
+            }
+        }
+    }
+
+    public boolean isDigestEnabled(Long userId) {
+        return digests.containsKey(userId);
+    }
+
+    // Scheduler entry point; also handy for tests
+    public void flushDigests() {
+        digests.forEach(this::flushDigest);
+    }
+
+    private void flushDigest(Long userId, Map<String, String> digest) {
+        List<String> messages;
+        synchronized (digest) {
+            messages = new ArrayList<>(digest.values());
+            digest.clear();
+        }
+        if (messages.size() == 1) {
+            store(userId, null, messages.get(0));
+        } else if (!messages.isEmpty()) {
+            store(userId, null, "You have " + messages.size() + " new notifications:\n- "
+                    + String.join("\n- ", messages));
+        }
+    }
+
+    private void store(Long userId, String coalesceKey, String message) {
+        NotificationInbox inbox = inbox(userId);
+        Notification notification;
+        synchronized (inbox) { // ids must reach the inbox in increasing order
+            notification = coalesceKey == null ? null
+                    : inbox.supersede(coalesceKey, message, System.currentTimeMillis(), coalesceWindowMillis);
+            if (notification != null) {
+                coalescedNotifications.incrementAndGet();
+            } else {
+                notification = new Notification(generateId(), message);
+                notification.setCoalesceKey(coalesceKey);
+                inbox.add(notification);
+                writtenNotifications.incrementAndGet();
+            }
+        }
+        streams.publish(userId, notification); // a superseded one is re-sent under the same id
+    }
+
+    private NotificationInbox inbox(Long userId) {
+        return inboxes.computeIfAbsent(userId, id -> new NotificationInbox(inboxCapacity));
+    }
+
+    private static int firstAfter(List<BroadcastNotification> broadcasts, long after) {
+        int low = 0;
+        int high = broadcasts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.parseLong(broadcasts.get(mid).getId()) > after) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // A topic's broadcasts share one roster and its size only grows, so the ones a user can see
+    // are a suffix of the list: everything published after their seat existed
+    private static int firstVisible(List<BroadcastNotification> broadcasts, long userId) {
+        if (broadcasts.isEmpty()) {
+            return 0;
+        }
+        int seat = broadcasts.get(0).getAudience().seatOf(userId);
+        if (seat < 0) {
+            return broadcasts.size();
+        }
+        int low = 0;
+        int high = broadcasts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (broadcasts.get(mid).getAudienceSize() > seat) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sends every recipient a personal copy of the message, e.g. when their course goes away along
+     * with its broadcasts, and returns immediately with a delivery handle.
+     */
+    public NotificationDelivery notifyUsers(String topic, long[] userIds, String message) {
+        return dispatch(topic, userIds, userId -> notifyUser(userId, message));
+    }
+
+    /**
+     * Queues send for every recipient in batches and returns a handle that completes once the
+     * workers have run it for all of them. When the queue is full the caller delivers the batch
+     * itself, which slows producers down instead of dropping notifications.
+     */
+    private NotificationDelivery dispatch(String topic, long[] userIds, LongConsumer send) {
+        long now = System.currentTimeMillis();
+        NotificationDelivery delivery = new NotificationDelivery(
+                "D-" + deliveryIdGenerator.getAndIncrement(), topic, userIds.length, now);
+        deliveries.put(delivery.getId(), delivery);
+
+        for (int from = 0; from < userIds.length; from += BATCH_SIZE) {
+            long[] recipients = Arrays.copyOfRange(userIds, from, Math.min(userIds.length, from + BATCH_SIZE));
+            DeliveryBatch batch = new DeliveryBatch(delivery, recipients, send, now);
+            pendingRecipients.addAndGet(recipients.length);
+            if (!enqueue(batch)) {
+                callerRunBatches.incrementAndGet();
+                deliver(batch);
+            }
+        }
+        return delivery;
+    }
+
+    public NotificationDelivery getDelivery(String deliveryId) {
+        return deliveries.get(deliveryId);
+    }
+
+    public Map<String, Object> getDeliveryMetrics() {
+        long batches = deliveredBatches.get();
+        DeliveryBatch oldest = queue.peek();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queuedBatches", queue.size());
+        metrics.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        metrics.put("pendingRecipients", pendingRecipients.get());
+        metrics.put("deliveredRecipients", deliveredRecipients.get());
+        metrics.put("failedRecipients", failedRecipients.get());
+        metrics.put("deliveredBatches", batches);
+        metrics.put("callerRunBatches", callerRunBatches.get());
+        metrics.put("oldestQueuedAgeMillis", oldest == null ? 0 : System.currentTimeMillis() - oldest.enqueuedAt());
+        metrics.put("averageLagMillis", batches == 0 ? 0 : totalLagMillis.get() / batches);
+        metrics.put("maxLagMillis", maxLagMillis.get());
+        metrics.put("broadcasts", broadcastsById.size());
+        long requested = requestedNotifications.get();
+        metrics.put("requestedNotifications", requested);
+        metrics.put("writtenNotifications", writtenNotifications.get());
+        metrics.put("coalescedNotifications", coalescedNotifications.get());
+        metrics.put("digestedNotifications", digestedNotifications.get());
+        // Events requested per notification actually stored; 1.0 means nothing was coalesced
+        metrics.put("coalescingRatio", writtenNotifications.get() == 0 ? 1.0 : (double) requested / writtenNotifications.get());
+        metrics.putAll(streams.getMetrics());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        workers.forEach(Thread::interrupt);
+    }
+
+    private boolean enqueue(DeliveryBatch batch) {
+        try {
+            return queue.offer(batch, ENQUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // A worker that dies is never replaced, so nothing a batch throws may escape the loop
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                deliver(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Notification worker {} failed", Thread.currentThread().getName(), e);
+            }
+        }
+    }
+
+    // One recipient's failure is logged and counted; the batch is always settled so its delivery completes
+    private void deliver(DeliveryBatch batch) {
+        int sent = 0;
+        try {
+            for (long userId : batch.recipients()) {
+                try {
+                    batch.send().accept(userId);
+                    sent++;
+                } catch (RuntimeException e) {
+                    log.error("Delivery {} failed for user {}", batch.delivery().getId(), userId, e);
+                }
+            }
+        } finally {
+            int failed = batch.recipients().length - sent;
+            long now = System.currentTimeMillis();
+            long lag = now - batch.enqueuedAt();
+            totalLagMillis.addAndGet(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            deliveredBatches.incrementAndGet();
+            deliveredRecipients.addAndGet(sent);
+            failedRecipients.addAndGet(failed);
+            pendingRecipients.addAndGet(-batch.recipients().length);
+            batch.delivery().recordDelivered(sent, failed, now);
+        }
+    }
+
+    private record DeliveryBatch(NotificationDelivery delivery, long[] recipients, LongConsumer send, long enqueuedAt) {
+    }
+
+    /**
+     * A topic's broadcasts in id order, copied on write like a CopyOnWriteArrayList but with the
+     * array exposed: readers wrap whatever array is current in a read-only list, which gives them
+     * a snapshot with random access for the binary searches without a copy per read. Writers hold
+     * the log's monitor.
+     */
+    private static final class BroadcastLog {
+        private volatile BroadcastNotification[] items = new BroadcastNotification[0];
+
+        List<BroadcastNotification> view() {
+            return Collections.unmodifiableList(Arrays.asList(items));
+        }
+
+        void append(BroadcastNotification broadcast) {
+            BroadcastNotification[] current = items;
+            BroadcastNotification[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = broadcast;
+            items = next;
+        }
+
+        void dropFirst(int count) {
+            BroadcastNotification[] current = items;
+            items = Arrays.copyOfRange(current, count, current.length);
         }
     }
 }
@@ -0,0 +1,260 @@
+package com.lms.LearningManagementSystem.Service;
+
+import com.lms.LearningManagementSystem.Model.Notification;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of open Server-Sent Events streams, keyed by user. Connected users are also indexed by
+ * the topics they follow, so a course broadcast finds its live audience without scanning every
+ * stream. The index is only touched under the user's entry in the stream map.
+ * <p>
+ * An idle stream is just an async servlet response and a small queue: no request thread is parked
+ * on it. Each stream drains its queue on a virtual thread only while it has something to send, so
+ * a slow client never blocks the code that produced the notification, and events reach a client
+ * in id order. A periodic heartbeat comment keeps proxies from closing idle connections and
+ * weeds out clients that have gone away.
+ */
+@Service
+public class NotificationStreams {
+
+    private final long timeoutMillis;
+    private final Map<Long, Set<Stream>> streamsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> topicsByUser = new ConcurrentHashMap<>(); // connected users only
+    private final Map<String, Set<Long>> usersByTopic = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicLong openStreams = new AtomicLong();
+    private final AtomicLong sentEvents = new AtomicLong();
+    private final AtomicLong failedStreams = new AtomicLong();
+
+    @Autowired
+    public NotificationStreams(@Value("${lms.notifications.stream-timeout-millis:1800000}") long timeoutMillis,
+                               @Value("${lms.notifications.heartbeat-seconds:20}") long heartbeatSeconds) {
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registers a stream for the user. Live notifications are buffered until {@link Stream#startLive}
+     * is called, so the caller can first queue the backlog the client missed without a gap or a duplicate.
+     * The user's first stream registers them under the topics they follow.
+     */
+    public Stream open(Long userId, Set<String> topics) {
+        Stream stream = new Stream(userId, new SseEmitter(timeoutMillis));
+        streamsByUser.compute(userId, (id, streams) -> {
+            Set<Stream> open = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            if (open.isEmpty()) {
+                topics.forEach(topic -> index(id, topic));
+            }
+            open.add(stream);
+            return open;
+        });
+        openStreams.incrementAndGet();
+        stream.emitter.onCompletion(() -> close(stream));
+        stream.emitter.onTimeout(() -> close(stream));
+        stream.emitter.onError(error -> close(stream));
+        return stream;
+    }
+
+    public void publish(Long userId, Notification notification) {
+        Set<Stream> streams = streamsByUser.get(userId);
+        if (streams != null) {
+            streams.forEach(stream -> stream.offer(notification));
+        }
+    }
+
+    // Called when a user starts following a topic; only matters while they are connected
+    public void follow(Long userId, String topic) {
+        streamsByUser.computeIfPresent(userId, (id, streams) -> {
+            index(id, topic);
+            return streams;
+        });
+    }
+
+    // Users following the topic with at least one open stream
+    public Set<Long> connectedUsers(String topic) {
+        return usersByTopic.getOrDefault(topic, Set.of());
+    }
+
+    public void dropTopic(String topic) {
+        Set<Long> users = usersByTopic.remove(topic);
+        if (users != null) {
+            users.forEach(userId -> streamsByUser.computeIfPresent(userId, (id, streams) -> {
+                Set<String> topics = topicsByUser.get(id);
+                if (topics != null) {
+                    topics.remove(topic);
+                }
+                return streams;
+            }));
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("openStreams", openStreams.get());
+        metrics.put("connectedUsers", streamsByUser.size());
+        metrics.put("liveTopics", usersByTopic.size());
+        metrics.put("sentEvents", sentEvents.get());
+        metrics.put("failedStreams", failedStreams.get());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdown();
+        streamsByUser.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+        senders.shutdown();
+    }
+
+    private void close(Stream stream) {
+        Set<Stream> streams = streamsByUser.get(stream.userId);
+        if (streams != null && streams.remove(stream)) {
+            openStreams.decrementAndGet();
+            streamsByUser.computeIfPresent(stream.userId, (id, remaining) -> {
+                if (!remaining.isEmpty()) {
+                    return remaining;
+                }
+                unindex(id);
+                return null;
+            });
+        }
+    }
+
+    // The two index methods run inside a compute on the user's entry in streamsByUser
+    private void index(Long userId, String topic) {
+        topicsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(topic);
+        usersByTopic.compute(topic, (key, users) -> {
+            Set<Long> following = users != null ? users : ConcurrentHashMap.newKeySet();
+            following.add(userId);
+            return following;
+        });
+    }
+
+    private void unindex(Long userId) {
+        Set<String> topics = topicsByUser.remove(userId);
+        if (topics != null) {
+            topics.forEach(topic -> usersByTopic.computeIfPresent(topic, (key, users) -> {
+                users.remove(userId);
+                return users.isEmpty() ? null : users;
+            }));
+        }
+    }
+
+    private void fail(Stream stream) {
+        failedStreams.incrementAndGet();
+        close(stream);
+        try {
+            stream.emitter.complete();
+        } catch (IllegalStateException e) {
+            // the container already tore the response down
+        }
+    }
+
+    private void sendHeartbeats() {
+        streamsByUser.values().forEach(streams -> streams.forEach(stream -> {
+            stream.forgetReplay();
+            senders.execute(() -> {
+                try {
+                    stream.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    fail(stream);
+                }
+            });
+        }));
+    }
+
+    public final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        // Ordered by id so the replayed backlog and live events interleave correctly
+        private final TreeMap<Long, Notification> queued = new TreeMap<>();
+        private Set<Long> replayed; // ids of the backlog, only while a replay may still race live publishes
+        private boolean live;
+        private boolean draining;
+
+        private Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        // Queues a notification the client missed while disconnected
+        public synchronized void replay(Notification notification) {
+            long id = Long.parseLong(notification.getId());
+            if (replayed == null) {
+                replayed = new HashSet<>();
+            }
+            replayed.add(id);
+            queued.put(id, notification);
+        }
+
+        // Ends the replay phase and starts delivering buffered and live notifications
+        public synchronized void startLive() {
+            live = true;
+            scheduleDrain();
+        }
+
+        synchronized void offer(Notification notification) {
+            long id = Long.parseLong(notification.getId());
+            if (replayed != null && replayed.contains(id)) {
+                return; // published just after the backlog snapshot was taken
+            }
+            queued.put(id, notification);
+            scheduleDrain();
+        }
+
+        // Live publishes racing the replay are long finished by the first heartbeat
+        synchronized void forgetReplay() {
+            if (live) {
+                replayed = null;
+            }
+        }
+
+        private void scheduleDrain() {
+            if (live && !draining && !queued.isEmpty()) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Map.Entry<Long, Notification> next;
+                synchronized (this) {
+                    next = queued.pollFirstEntry();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(next.getValue().getId())
+                            .name("notification")
+                            .data(next.getValue()));
+                    sentEvents.incrementAndGet();
+                } catch (IOException | IllegalStateException e) {
+                    fail(this);
+                    return;
+                }
+            }
+        }
+    }
+}
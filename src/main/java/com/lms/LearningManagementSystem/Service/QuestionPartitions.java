@@ -0,0 +1,83 @@
+package com.lms.LearningManagementSystem.Service;
+
+import com.lms.LearningManagementSystem.Model.Assessment.Difficulty;
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The question bank, partitioned by topic tag, by difficulty and by both, next to one partition of
+ * every question. A partition is an append-only array that doubles when full, so adding a question
+ * costs O(its tags) amortized and never copies the bank. Readers take a snapshot and sample it
+ * without locking: later appends only write past the snapshot's size.
+ */
+final class QuestionPartitions {
+
+    static final Snapshot EMPTY = new Snapshot(new Question[0], 0);
+
+    private final Partition all = new Partition();
+    private final Map<Key, Partition> partitions = new ConcurrentHashMap<>();
+
+    // One writer at a time: AssessmentService.addQuestions is synchronized
+    void add(Question question) {
+        Difficulty difficulty = question.getDifficulty();
+        all.append(question);
+        partition(new Key(null, difficulty)).append(question);
+        Set<String> seen = new HashSet<>();
+        if (question.getTags() != null) {
+            for (String tag : question.getTags()) {
+                String normalized = normalize(tag);
+                if (seen.add(normalized)) { // "Java" and "java" are one tag
+                    partition(new Key(normalized, null)).append(question);
+                    partition(new Key(normalized, difficulty)).append(question);
+                }
+            }
+        }
+    }
+
+    Snapshot all() {
+        return all.current;
+    }
+
+    // Either may be null for "any"; the tag must already be normalized
+    Snapshot snapshot(String tag, Difficulty difficulty) {
+        if (tag == null && difficulty == null) {
+            return all.current;
+        }
+        Partition partition = partitions.get(new Key(tag, difficulty));
+        return partition == null ? EMPTY : partition.current;
+    }
+
+    static String normalize(String tag) {
+        return tag == null ? null : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Partition partition(Key key) {
+        return partitions.computeIfAbsent(key, k -> new Partition());
+    }
+
+    // The first size questions of items
+    record Snapshot(Question[] items, int size) {
+    }
+
+    private record Key(String tag, Difficulty difficulty) {
+    }
+
+    private static final class Partition {
+        private volatile Snapshot current = EMPTY;
+
+        void append(Question question) {
+            Snapshot snapshot = current;
+            Question[] items = snapshot.size() < snapshot.items().length
+                    ? snapshot.items()
+                    : Arrays.copyOf(snapshot.items(), Math.max(16, snapshot.items().length * 2));
+            items[snapshot.size()] = question;
+            current = new Snapshot(items, snapshot.size() + 1);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.lms.LearningManagementSystem.Service;
+
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws questions without replacement by a partial Fisher-Yates shuffle that never touches the
+ * source: the few positions it would have swapped are remembered in a small map instead. A draw of
+ * k questions is O(k) in time and memory whatever the bank size, the bank can be shared by any
+ * number of concurrent draws, and the same random sequence always yields the same questions.
+ */
+public final class QuestionSampler {
+
+    private QuestionSampler() {
+    }
+
+    public static Question[] sample(Question[] bank, int count, RandomGenerator random) {
+        return sample(bank, 0, bank.length, count, random);
+    }
+
+    // Draws from bank[from, to)
+    public static Question[] sample(Question[] bank, int from, int to, int count, RandomGenerator random) {
+        int size = to - from;
+        if (count > size) {
+            throw new IllegalArgumentException("Requested number of questions exceeds the available question bank size.");
+        }
+        Question[] drawn = new Question[count];
+        Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(size - i);
+            int picked = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i)); // position i moves into the slot that was drawn
+            drawn[i] = bank[from + picked];
+        }
+        return drawn;
+    }
+
+    /**
+     * Draws count questions from bank[from, to) whose ids are not in taken yet, adding them to drawn
+     * and their ids to taken. Questions already taken are skipped, so the draw stays O(count) plus
+     * the overlap it runs into.
+     */
+    public static void sampleInto(Question[] bank, int from, int to, int count, RandomGenerator random,
+                                  Set<Long> taken, List<Question> drawn) {
+        int size = to - from;
+        Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+        for (int i = 0; count > 0; i++) {
+            if (i == size) {
+                throw new IllegalArgumentException("Requested number of questions exceeds the available question bank size.");
+            }
+            int j = i + random.nextInt(size - i);
+            int picked = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i));
+            Question question = bank[from + picked];
+            if (taken.add(question.getId())) {
+                drawn.add(question);
+                count--;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.lms.LearningManagementSystem.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Quiz submissions, one per (quiz, student): the answers encoded by the quiz's AnswerKey, one byte
+ * per question. A quiz gets its own concurrent map on its first submission, so students writing
+ * to the same quiz only contend on the map's bins, and memory grows with the submissions that
+ * exist rather than with quizzes times students. A resubmission replaces the earlier answers.
+ * <p>
+ * Closing a quiz waits for submissions already in flight and turns later ones away, so the map it
+ * returns is final and can be graded without copying. Writes in flight are counted on striped
+ * counters, a cache line each and picked by student, rather than on one lock shared by the quiz.
+ */
+public class SubmissionStore {
+
+    private static final int STRIPES = 16;
+    private static final int STRIPE_SPACING = 16; // ints per 64-byte cache line
+
+    private final Map<Long, QuizSubmissions> byQuiz = new ConcurrentHashMap<>();
+
+    // Returns true if this replaced an earlier submission
+    public boolean put(Long quizId, Long studentId, byte[] answers) {
+        QuizSubmissions quiz = byQuiz.computeIfAbsent(quizId, id -> new QuizSubmissions());
+        // Counted before the closed check and on the same stripe both ways, so a stripe never goes
+        // negative and close() sees every write that got past the check
+        int stripe = stripe(studentId);
+        quiz.inFlight.incrementAndGet(stripe);
+        try {
+            if (quiz.closed) {
+                throw new IllegalArgumentException("Quiz is closed.");
+            }
+            return quiz.answers.put(studentId, answers) != null;
+        } finally {
+            quiz.inFlight.decrementAndGet(stripe);
+        }
+    }
+
+    public byte[] get(Long quizId, Long studentId) {
+        QuizSubmissions quiz = byQuiz.get(quizId);
+        return quiz == null ? null : quiz.answers.get(studentId);
+    }
+
+    // Read-only live view of the quiz's submissions, by student id
+    public Map<Long, byte[]> forQuiz(Long quizId) {
+        QuizSubmissions quiz = byQuiz.get(quizId);
+        return quiz == null ? Collections.emptyMap() : Collections.unmodifiableMap(quiz.answers);
+    }
+
+    public int count(Long quizId) {
+        QuizSubmissions quiz = byQuiz.get(quizId);
+        return quiz == null ? 0 : quiz.answers.size();
+    }
+
+    // Stops accepting submissions for the quiz and returns the final set
+    public Map<Long, byte[]> close(Long quizId) {
+        QuizSubmissions quiz = byQuiz.computeIfAbsent(quizId, id -> new QuizSubmissions());
+        quiz.closed = true;
+        // Writes in flight are a single map put each, so waiting them out is a short spin
+        for (int i = 0; i < STRIPES * STRIPE_SPACING; i += STRIPE_SPACING) {
+            while (quiz.inFlight.get(i) != 0) {
+                Thread.onSpinWait();
+            }
+        }
+        return Collections.unmodifiableMap(quiz.answers);
+    }
+
+    public boolean isClosed(Long quizId) {
+        QuizSubmissions quiz = byQuiz.get(quizId);
+        return quiz != null && quiz.closed;
+    }
+
+    // The top four bits of a Fibonacci hash pick one of the 16 stripes
+    private static int stripe(Long studentId) {
+        return (int) ((studentId * 0x9E3779B97F4A7C15L) >>> 60) * STRIPE_SPACING;
+    }
+
+    private static final class QuizSubmissions {
+        private final Map<Long, byte[]> answers = new ConcurrentHashMap<>();
+        private final AtomicIntegerArray inFlight = new AtomicIntegerArray(STRIPES * STRIPE_SPACING);
+        private volatile boolean closed;
+    }
+}
@@ -0,0 +1,60 @@
+package com.lms.LearningManagementSystem.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: deadlines are dropped into one of a fixed number of slots and fired when
+ * the owner advances the wheel past them. Scheduling is a lock-free queue append, and there is
+ * one driver thread in total instead of one timer per entry.
+ */
+public class TimingWheel {
+
+    private final long tickMillis;
+    private final Queue<Entry>[] slots;
+    private final Consumer<String> onExpire;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slotCount, long startMillis, Consumer<String> onExpire) {
+        this.tickMillis = tickMillis;
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.onExpire = onExpire;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Safe to call from any thread
+    public void schedule(String key, long deadlineMillis) {
+        // Round up so the entry's slot is never reached before its deadline
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        slots[(int) (tick % slots.length)].add(new Entry(key, deadlineMillis));
+    }
+
+    // Fires every entry whose deadline has passed; must only be called from the driver thread
+    public void advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            Queue<Entry> slot = slots[(int) (currentTick % slots.length)];
+            List<Entry> later = new ArrayList<>();
+            Entry entry;
+            while ((entry = slot.poll()) != null) {
+                if (entry.deadlineMillis <= nowMillis) {
+                    onExpire.accept(entry.key);
+                } else {
+                    later.add(entry); // belongs to a later turn of the wheel
+                }
+            }
+            slot.addAll(later);
+        }
+    }
+
+    private record Entry(String key, long deadlineMillis) {
+    }
+}
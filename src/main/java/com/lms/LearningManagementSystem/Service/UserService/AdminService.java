@@ -1,6 +1,8 @@
 package com.lms.LearningManagementSystem.Service.UserService;
 
 import com.lms.LearningManagementSystem.Model.Course;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
+import com.lms.LearningManagementSystem.Model.User.Admin;
 import com.lms.LearningManagementSystem.Service.AssessmentService;
 import com.lms.LearningManagementSystem.Service.CourseService;
 import com.lms.LearningManagementSystem.Service.NotificationService;
@@ -14,17 +16,18 @@ public class AdminService extends UserService {
     }
 
     public static Course createCourse(Long AdminId,String title, String description, int duration) {
+        requireRole(AdminId, Admin.class, "Only admins can create courses.");
         return courseService.createCourse(AdminId,title, description, duration);
     }
 
-    public static Course updateCourse(Long AdminId,String courseId, String title, String description, int duration) {
-        Course course = courseService.findCourseById(courseId);
+    public static CourseService.CourseUpdate updateCourse(Long AdminId,String courseId, String title, String description, int duration) {
+        requireRole(AdminId, Admin.class, "Only admins can update courses.");
         return courseService.updateCourse( AdminId,courseId, title, description, duration);
     }
 
-    public static void deleteCourse(Long adminId, String courseId) {
-        Course course = courseService.findCourseById(courseId);
-        courseService.deleteCourse(adminId, courseId); // no return
+    public static NotificationDelivery deleteCourse(Long adminId, String courseId) {
+        requireRole(adminId, Admin.class, "Only admins can delete courses.");
+        return courseService.deleteCourse(adminId, courseId);
     }
 
 
@@ -2,9 +2,13 @@ package com.lms.LearningManagementSystem.Service.UserService;
 
 import com.lms.LearningManagementSystem.Model.Assessment.Assignment;
 import com.lms.LearningManagementSystem.Model.Assessment.Grading;
+import com.lms.LearningManagementSystem.Model.Assessment.GradingRun;
+import com.lms.LearningManagementSystem.Model.Assessment.GradingType;
 import com.lms.LearningManagementSystem.Model.Assessment.Question;
 import com.lms.LearningManagementSystem.Model.Assessment.Quiz;
+import com.lms.LearningManagementSystem.Model.Assessment.QuizBlueprint;
 import com.lms.LearningManagementSystem.Model.Course;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
 import com.lms.LearningManagementSystem.Model.User.Instructor;
 import com.lms.LearningManagementSystem.Model.User.Student;
 import com.lms.LearningManagementSystem.Model.User.User;
@@ -22,108 +26,116 @@ public class InstructorService extends UserService {
         super(courseService, notificationService, assessmentService);
     }
 
-    public static boolean assignInstructorToCourse(Long instructorId, String courseId) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
+    public static NotificationDelivery assignInstructorToCourse(Long instructorId, String courseId) {
+        requireRole(instructorId, Instructor.class, "User is not an instructor and cannot assign courses.");
+        User user = userStore.get(instructorId); // the course keeps the instructor itself
+        if (!(user instanceof Instructor)) {
             throw new IllegalArgumentException("User is not an instructor and cannot assign courses.");
         }
 
         Course course = courseService.findCourseById(courseId);
         if (course == null) {
-            return false; // Course not found
+            return null; // Course not found
         }
 
         // Assign the instructor to the course
+        Instructor previousInstructor = course.getInstructor();
         course.setInstructor((Instructor) user);
+        courseService.onInstructorAssigned(course, previousInstructor);
 
 
         // Notify the instructor about the assignment
         notificationService.notifyUser(instructorId,
                 "You have been assigned to teach the course: " + course.getTitle());
 
-        // Notify students about the new instructor
-        for (Long studentId : course.getEnrolledStudents()) {
-            notificationService.notifyUser(studentId,
-                    "The course " + course.getTitle() + " now has a new instructor: " + user.getName());
-        }
-
-        return true;
+        // Notify students about the new instructor with a single course-wide broadcast
+        return notificationService.broadcast(NotificationService.courseTopic(courseId), "instructor", course.getEnrolledStudents(),
+                "The course " + course.getTitle() + " now has a new instructor: " + user.getName());
     }
 
     public static String generateOtpForLesson(Long instructorId, String courseId, String lessonId) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         return courseService.generateOtp(courseId, lessonId);
     }
 
+    public static String getCurrentOtpForLesson(Long instructorId, String courseId, String lessonId) {
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
+        return courseService.getCurrentOtp(courseId, lessonId);
+    }
+
     public static Quiz createQuiz(Long instructorId, String title, int num, int totalMarks) {
-        User user = userStore.get(instructorId);
-        if (user == null || !"INSTRUCTOR".equalsIgnoreCase(user.getRole())) {
-            throw new IllegalArgumentException("Only instructors can create quizzes.");
-        }
+        requireRole(instructorId, Instructor.class, "Only instructors can create quizzes.");
         return assessmentService.createQuiz(title, num, totalMarks);
     }
 
+    public static Quiz createQuiz(Long instructorId, String title, int num, int totalMarks, boolean perStudent) {
+        requireRole(instructorId, Instructor.class, "Only instructors can create quizzes.");
+        return assessmentService.createQuiz(title, num, totalMarks, perStudent);
+    }
+
+    public static Quiz createQuiz(Long instructorId, QuizBlueprint blueprint) {
+        requireRole(instructorId, Instructor.class, "Only instructors can create quizzes.");
+        return assessmentService.createQuiz(blueprint);
+    }
+
     public static int correctAnswersCount(Long quizId, Long studentId) {
         return assessmentService.correctAnswersCount(quizId, studentId);
     }
 
+    // Quiz deadline: stops submissions and grades them all in the background
+    public static GradingRun closeQuiz(Long instructorId, Long quizId) {
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
+        return assessmentService.closeQuiz(quizId);
+    }
+
+    public static GradingRun getGradingRun(Long instructorId, Long quizId) {
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
+        return assessmentService.getGradingRun(quizId);
+    }
+
     public static void addQuestions(Long instructorId,List<Question> questions) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         assessmentService.addQuestions(questions); }
 
     public static List<Question> GetQuestions(Long instructorId) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
 
         return assessmentService.GetQuestions();
     }
 
     public static Assignment createAssignment(Long instructorId,String title, String description) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         return assessmentService.createAssignment(title, description);
     }
     public static void gradeAssignment(Long instructorId,Long studentId, String type, String marks, String feedback) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         assessmentService.gradeAssignment(studentId, type, marks, feedback);
     }
 
+    public static void gradeAssignment(Long instructorId, Long assignmentId, Long studentId, String marks, String feedback) {
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
+        assessmentService.gradeAssignment(assignmentId, studentId, marks, feedback);
+    }
+
     // Get Gradings
     public static List<Grading> trackStudentPerformance(Long instructorId,Long studentId) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         return assessmentService.trackStudentPerformance(studentId);
     }
 
     public static List<Grading> trackStudentAssignments(Long instructorId,Long studentId) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         return assessmentService.trackStudentAssignments(studentId);
     }
 
     public static List<Grading> trackStudentQuizPerformance(Long instructorId,Long studentId) {
-        User user = userStore.get(instructorId);
-        if (user == null || !(user instanceof Instructor)) {
-            throw new IllegalArgumentException("User is not an instructor .");
-        }
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
         return assessmentService.trackStudentQuizPerformance(studentId);
     }
 
+    public static List<Grading> findGradings(Long instructorId, GradingType type, Long assessmentId) {
+        requireRole(instructorId, Instructor.class, "User is not an instructor .");
+        return assessmentService.findGradings(type, assessmentId);
+    }
+
 }
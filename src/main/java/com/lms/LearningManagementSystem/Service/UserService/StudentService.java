@@ -22,20 +22,18 @@ public class StudentService extends UserService {
     }
 
     public static boolean enrollInCourse(Long StudentId, String courseId) {
-        User user = userStore.get(StudentId);
-        if (user == null || !(user instanceof Student)) {
-            throw new IllegalArgumentException("Only Student can create courses.");
-        }
+        requireRole(StudentId, Student.class, "Only Student can create courses.");
         Course course = courseService.findCourseById(courseId);
-        if (course != null && !course.getEnrolledStudents().contains(StudentId)) {
-            // Add student to course
-            course.getEnrolledStudents().add(Long.parseLong(String.valueOf(StudentId)));
+        // Check-and-add is atomic on the roster, so concurrent requests cannot enroll twice
+        if (course != null && courseService.enrollStudent(course, StudentId)) {
             // Notify student
             notificationService.notifyUser(StudentId,
                     "You have been enrolled in the course: " + course.getTitle());
             // Notify instructor
             if (course.getInstructor() != null) {
+                // Coalesced per course, so an enrollment rush leaves one unread notification
                 notificationService.notifyUser(course.getInstructor().getId(),
+                        NotificationService.courseTopic(courseId) + ":enrollments",
                         "A new student has enrolled in your course: " + course.getTitle());
             }
             return true;
@@ -43,26 +41,23 @@ public class StudentService extends UserService {
         return false;
     }
     public static boolean markAttendance(Long studentId, String courseId, String lessonId, String otp) {
-        User user = userStore.get(studentId);
-        if (user == null || !(user instanceof Student)) {
-            throw new IllegalArgumentException("Only Student can markAttendance.");
-        }
-        return courseService.markAttendance(courseId, lessonId, String.valueOf(studentId), true);
+        requireRole(studentId, Student.class, "Only Student can markAttendance.");
+        return courseService.checkIn(courseId, lessonId, studentId, otp);
     }
 
-    public static void SubmitQuiz(Long studentId,Long quizId, Map<String, String> answers) {
-        User user = userStore.get(studentId);
-        if (user == null || !(user instanceof Student)) {
-            throw new IllegalArgumentException("User is not a Student  .");
-        }
-        assessmentService.SubmitQuiz(quizId, answers);
+    public static void SubmitQuiz(Long studentId,Long quizId, Map<String, ?> answers) {
+        requireRole(studentId, Student.class, "User is not a Student  .");
+        assessmentService.SubmitQuiz(quizId, studentId, answers);
+    }
+
+    // Immediate feedback on a submission; the grading itself is recorded when the quiz closes
+    public static int checkQuizAnswers(Long studentId, Long quizId) {
+        requireRole(studentId, Student.class, "User is not a Student  .");
+        return assessmentService.previewCorrectAnswers(quizId, studentId);
     }
 
     public static void submitAssignment(Long assignmentId, String fileName, Long studID) {
-        User user = userStore.get(studID);
-        if (user == null || !(user instanceof Student)) {
-            throw new IllegalArgumentException("User is not a Student  .");
-        }
+        requireRole(studID, Student.class, "User is not a Student  .");
         assessmentService.submitAssignment(assignmentId, fileName, studID);
     }
 
@@ -80,6 +75,11 @@ public class StudentService extends UserService {
         return assessmentService.findQuizById(id);
     }
 
+    // The student's own draw of a per-student quiz
+    public static Quiz findQuizFor(Long quizId, Long studentId) {
+        return assessmentService.findQuizFor(quizId, studentId);
+    }
+
     public static List<Quiz> GetAllquizzes() {
         return assessmentService.GetAllquizzes();
     }
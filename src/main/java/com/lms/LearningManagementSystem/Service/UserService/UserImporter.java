@@ -0,0 +1,217 @@
+package com.lms.LearningManagementSystem.Service.UserService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.LearningManagementSystem.Model.User.User;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Bulk registration for semester onboarding. The upload is read one line at a time and handled in
+ * fixed-size batches: each batch takes one block of ids from the UserService, registers its rows
+ * through the same validation and email index as a single registration, and writes one NDJSON result
+ * line per row before the next batch is read. Memory therefore depends on the batch size, not on the
+ * size of the file.
+ */
+@Service
+public class UserImporter {
+    static final int BATCH_SIZE = 256;
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password", "role");
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String contentType) {
+            if (contentType != null) {
+                String type = contentType.toLowerCase(Locale.ROOT);
+                if (type.startsWith("text/csv")) {
+                    return CSV;
+                }
+                if (type.startsWith("application/x-ndjson")) {
+                    return NDJSON;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import format. Use text/csv or application/x-ndjson.");
+        }
+    }
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public UserImporter(UserService userService, ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers every row of the upload and reports on each as it goes. Rows are numbered from 1,
+     * not counting a CSV header. The report ends with a summary line. Returns the summary.
+     */
+    public Map<String, Object> importUsers(Reader input, Format format, Writer report) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        int[] columns = null;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV upload is empty.");
+            }
+            columns = csvColumns(header);
+        }
+
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        int rowNumber = 0;
+        int created = 0;
+        int rejected = 0;
+        String line;
+        do {
+            line = reader.readLine();
+            if (line != null && !line.isBlank()) {
+                batch.add(parse(++rowNumber, line, format, columns));
+            }
+            if (batch.size() == BATCH_SIZE || (line == null && !batch.isEmpty())) {
+                int batchCreated = register(batch, report);
+                created += batchCreated;
+                rejected += batch.size() - batchCreated;
+                report.flush();
+                batch.clear();
+            }
+        } while (line != null);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", "done");
+        summary.put("rows", rowNumber);
+        summary.put("created", created);
+        summary.put("rejected", rejected);
+        writeLine(report, summary);
+        report.flush();
+        return summary;
+    }
+
+    // Returns how many rows of the batch were registered
+    private int register(List<Row> batch, Writer report) throws IOException {
+        int valid = 0;
+        for (Row row : batch) {
+            if (row.user != null) {
+                valid++;
+            }
+        }
+        long nextId = valid == 0 ? 0 : userService.reserveIds(valid);
+        int created = 0;
+        for (Row row : batch) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("row", row.number);
+            if (row.user == null) {
+                result.put("status", "rejected");
+                result.put("error", row.error);
+            } else {
+                try {
+                    // An id is used up even when its row is rejected, which leaves a gap and nothing more
+                    User user = userService.addUser(row.user, nextId++);
+                    result.put("status", "created");
+                    result.put("id", user.getId());
+                    created++;
+                } catch (IllegalArgumentException e) {
+                    result.put("status", "rejected");
+                    result.put("error", e.getMessage());
+                }
+            }
+            writeLine(report, result);
+        }
+        return created;
+    }
+
+    private Row parse(int number, String line, Format format, int[] columns) {
+        try {
+            User user = format == Format.CSV ? fromCsv(line, columns) : objectMapper.readValue(line, User.class);
+            if (user == null) {
+                return new Row(number, null, "Row is not a user object.");
+            }
+            return new Row(number, user, null);
+        } catch (JsonProcessingException e) {
+            return new Row(number, null, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new Row(number, null, e.getMessage());
+        }
+    }
+
+    // Position of name, email, password and role in the header; -1 for an absent optional column
+    private static int[] csvColumns(String header) {
+        List<String> names = splitCsv(header);
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                    columns[i] = j;
+                }
+            }
+        }
+        if (columns[1] < 0 || columns[3] < 0) {
+            throw new IllegalArgumentException("CSV header must name the email and role columns.");
+        }
+        return columns;
+    }
+
+    private static User fromCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        User user = new User();
+        user.setName(field(fields, columns[0]));
+        user.setEmail(field(fields, columns[1]));
+        user.setPassword(field(fields, columns[2]));
+        user.setRole(field(fields, columns[3]));
+        return user;
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 fields on a single line: commas inside quotes, and "" for a literal quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void writeLine(Writer report, Map<String, Object> line) throws IOException {
+        report.write(objectMapper.writeValueAsString(line));
+        report.write('\n');
+    }
+
+    private record Row(int number, User user, String error) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.lms.LearningManagementSystem.Service.UserService;
 
 import com.lms.LearningManagementSystem.Model.User.*;
+import com.lms.LearningManagementSystem.Security.AccessDeniedException;
+import com.lms.LearningManagementSystem.Security.SessionContext;
+import com.lms.LearningManagementSystem.Security.SessionPrincipal;
 import com.lms.LearningManagementSystem.Service.AssessmentService;
 import com.lms.LearningManagementSystem.Service.CourseService;
 import com.lms.LearningManagementSystem.Service.NotificationService;
@@ -14,8 +17,12 @@ import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class UserService {
+    private static final Set<String> VALID_ROLES = Set.of("admin", "instructor", "student");
+    private static final String DUPLICATE_EMAIL = "User already exists with the same email. Please register using another email.";
 
-    public static final Map<Long, User> userStore = new ConcurrentHashMap<>();
+    public static final UserStore userStore = new UserStore();
+    // Normalized email -> user id, kept in step by addUser/updateUser/deleteUser; the map is what makes emails unique
+    private static final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
     protected final AtomicLong idGenerator = new AtomicLong(1); // Atomic for synchronization
     @Autowired
     @Qualifier("courseService")
@@ -34,9 +41,9 @@ public class UserService {
         this.assessmentService = assessmentService;
     }
 
-    // Retrieve all users
-    public List<User> getAllUsers() {
-        return new ArrayList<>(userStore.values());
+    // Retrieve all users: a read-only live view, not a copy of the store
+    public Collection<User> getAllUsers() {
+        return userStore.values();
     }
 
     // Retrieve a user by ID
@@ -45,23 +52,79 @@ public class UserService {
     }
 
     public User authenticate(String email, String password) {
-        for (User user : userStore.values()) {
-            if (user.getEmail().equalsIgnoreCase(email) && user.getPassword().equals(password)) {
-                return user; // User authenticated
-            }
+        if (email == null || password == null) {
+            return null;
+        }
+        String key = normalizeEmail(email);
+        Long id = emailIndex.get(key);
+        User user = id == null ? null : userStore.get(id);
+        // The second check guards against a user replaced in userStore behind the index's back
+        if (user != null && key.equals(normalizeEmail(user.getEmail())) && password.equals(user.getPassword())) {
+            return user; // User authenticated
         }
         return null; // Invalid credentials
     }
 
+    public User findByEmail(String email) {
+        Long id = email == null ? null : emailIndex.get(normalizeEmail(email));
+        return id == null ? null : userStore.get(id);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks that the acting user holds the role. A request that carried a session token is decided
+     * from the verified principal, without touching the store, and may only act as that user: any
+     * other id, or the wrong role, is an AccessDeniedException (403).
+     */
+    public static void requireRole(Long userId, Class<? extends User> role, String error) {
+        SessionPrincipal principal = SessionContext.current();
+        if (principal != null) {
+            if (userId == null || principal.userId() != userId || !principal.hasRole(role.getSimpleName())) {
+                throw new AccessDeniedException(error);
+            }
+            return;
+        }
+        if (!role.isInstance(userStore.get(userId))) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    // Atomically maps the email to the user; fails if another live user already holds it
+    private static boolean claimEmail(String key, Long id) {
+        Long owner = emailIndex.compute(key, (email, current) ->
+                current == null || current.equals(id) || !userStore.containsKey(current) ? id : current);
+        return owner.equals(id);
+    }
+
     public User addUser(User user) {
+        User newUser = newUserFor(user);
+        return insert(newUser, idGenerator.getAndIncrement());
+    }
+
+    // Bulk registration: reserves a block of consecutive ids in one step
+    public long reserveIds(int count) {
+        return idGenerator.getAndAdd(count);
+    }
+
+    // Registers the user under an id taken from reserveIds
+    public User addUser(User user, long id) {
+        return insert(newUserFor(user), id);
+    }
+
+    // Validates the registration and creates the user of the requested role
+    private User newUserFor(User user) {
         if (user.getRole() == null || user.getRole().isEmpty()) {
             throw new IllegalArgumentException("User role is required");
         }
-
-        for (User existingUser : userStore.values()) {
-            if (existingUser.getEmail().equalsIgnoreCase(user.getEmail())) {
-                throw new IllegalArgumentException("User already exists with the same email. Please register using another email.");
-            }
+        if (user.getEmail() == null || user.getEmail().isBlank()) {
+            throw new IllegalArgumentException("User email is required");
+        }
+        Long owner = emailIndex.get(normalizeEmail(user.getEmail()));
+        if (owner != null && userStore.containsKey(owner)) {
+            throw new IllegalArgumentException(DUPLICATE_EMAIL);
         }
 
         User newUser;
@@ -76,63 +139,74 @@ public class UserService {
         newUser.setName(user.getName());
         newUser.setEmail(user.getEmail());
         newUser.setPassword(user.getPassword());
+        return newUser;
+    }
 
-        long id = idGenerator.getAndIncrement();
+    private User insert(User newUser, long id) {
         newUser.setId(id);
+        // Stored first, so a concurrent registration sees a live owner; rolled back if it loses the race
         userStore.put(id, newUser);
+        if (!claimEmail(normalizeEmail(newUser.getEmail()), id)) {
+            userStore.remove(id, newUser);
+            throw new IllegalArgumentException(DUPLICATE_EMAIL);
+        }
         return newUser;
     }
 
 
     // Update an existing user
     public User updateUser(User updateUser, Long id) {
-        if (userStore.containsKey(id)) {
+        User existing = userStore.get(id);
+        if (existing != null) {
+            String previousKey = normalizeEmail(existing.getEmail());
+            String newKey = normalizeEmail(updateUser.getEmail());
+            if (newKey != null && !newKey.equals(previousKey) && !claimEmail(newKey, id)) {
+                throw new IllegalArgumentException(DUPLICATE_EMAIL);
+            }
             updateUser.setId(id);
             userStore.put(id, updateUser);
+            if (previousKey != null && !previousKey.equals(newKey)) {
+                emailIndex.remove(previousKey, id);
+            }
             return updateUser;
         }
         return null;
     }
 
     public void deleteUser(Long id) {
-        if (!userStore.containsKey(id)) {
+        User removed = userStore.remove(id);
+        if (removed == null) {
             throw new IllegalArgumentException("User with ID " + id + " does not exist.");
         }
-        userStore.remove(id);
+        if (removed.getEmail() != null) {
+            emailIndex.remove(normalizeEmail(removed.getEmail()), id);
+        }
     }
 
 
-    public ArrayList<User> listUsers(String role) {
-        // Start with all users
-        ArrayList<User> users = new ArrayList<>();
+    // One page of users with the role (all users when role is empty), sorted by id
+    public List<User> listUsers(String role, int page, int size) {
+        return userStore.page(roleFilter(role), (int) Math.min(Integer.MAX_VALUE, (long) page * size), size);
+    }
 
-        // Filter by role if provided
-        if (role != null && !role.isEmpty()) {
-            for (User user : userStore.values()) {
-                if (user.equals(user.getRole(), role)) {
-                    users.add(user);
-                }
-            }
+    // Cursor paging: up to size users with an id greater than after, sorted by id
+    public List<User> listUsersAfter(String role, long after, int size) {
+        return userStore.pageAfter(roleFilter(role), after, size);
+    }
+
+    private static String roleFilter(String role) {
+        String roleFilter = role == null || role.isEmpty() ? null : role;
+        if (roleFilter != null && !VALID_ROLES.contains(roleFilter.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Invalid role. Valid roles are Admin, Instructor, and Student.");
         }
-        return users;
+        return roleFilter;
     }
 
     public List<User> getUsersByRole(String role) {
-        List<User> filteredUsers = new ArrayList<>();
-
-        for (User user : userStore.values()) {
-            if ("Student".equalsIgnoreCase(role) && user instanceof Student) {
-                filteredUsers.add(user);
-            } else if ("Instructor".equalsIgnoreCase(role) && user instanceof Instructor) {
-                filteredUsers.add(user);
-            } else if ("Admin".equalsIgnoreCase(role) && user instanceof Admin) {
-                filteredUsers.add(user);
-            }
+        if (role == null || !VALID_ROLES.contains(role.toLowerCase(Locale.ROOT))) {
+            return new ArrayList<>();
         }
-
-        return filteredUsers;
+        return userStore.page(role, 0, Integer.MAX_VALUE);
     }
 
-
-
 }
@@ -0,0 +1,163 @@
+package com.lms.LearningManagementSystem.Service.UserService;
+
+import com.lms.LearningManagementSystem.Model.User.User;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The user registry: a concurrent map from id to user that also keeps every id, and the ids of
+ * each role, in sorted sets. Role listings and pages read those sets instead of scanning the whole
+ * population. The map is private and every write goes through a compute on the user's id, so the
+ * sets change under the same lock as the entry and cannot drift from it.
+ */
+public class UserStore {
+
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> allIds = new ConcurrentSkipListSet<>();
+    private final Map<String, NavigableSet<Long>> idsByRole = new ConcurrentHashMap<>();
+
+    public User get(Long id) {
+        return users.get(id);
+    }
+
+    public boolean containsKey(Long id) {
+        return users.containsKey(id);
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    // Read-only live view
+    public Collection<User> values() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    // Returns the user it replaced, if any
+    public User put(Long id, User user) {
+        Objects.requireNonNull(user);
+        User[] previous = new User[1];
+        users.compute(id, (key, current) -> {
+            previous[0] = current;
+            if (current != null && !Objects.equals(roleKey(current), roleKey(user))) {
+                unindex(key, current);
+            }
+            index(key, user);
+            return user;
+        });
+        return previous[0];
+    }
+
+    public User putIfAbsent(Long id, User user) {
+        Objects.requireNonNull(user);
+        User[] previous = new User[1];
+        users.compute(id, (key, current) -> {
+            if (current != null) {
+                previous[0] = current;
+                return current;
+            }
+            index(key, user);
+            return user;
+        });
+        return previous[0];
+    }
+
+    public User remove(Long id) {
+        User[] removed = new User[1];
+        users.computeIfPresent(id, (key, current) -> {
+            removed[0] = current;
+            unindex(key, current);
+            allIds.remove(key);
+            return null;
+        });
+        return removed[0];
+    }
+
+    // Removes the user only if the id still maps to it
+    public boolean remove(Long id, User user) {
+        boolean[] removed = new boolean[1];
+        users.computeIfPresent(id, (key, current) -> {
+            if (!current.equals(user)) {
+                return current;
+            }
+            removed[0] = true;
+            unindex(key, current);
+            allIds.remove(key);
+            return null;
+        });
+        return removed[0];
+    }
+
+    public void clear() {
+        users.keySet().forEach(this::remove);
+    }
+
+    /**
+     * Users with the role (case-insensitive) and an id greater than after, in id order; a null role
+     * pages over everyone. A tail of the sorted index, so the cost does not grow with how deep the
+     * page is: pass the last id of a page back as the cursor for the next.
+     */
+    public List<User> pageAfter(String role, long after, int limit) {
+        NavigableSet<Long> ids = ids(role);
+        return ids == null ? Collections.emptyList() : collect(ids.tailSet(after, false), limit);
+    }
+
+    // Offset paging for page-number clients: steps over index keys only, never over users
+    public List<User> page(String role, int offset, int limit) {
+        NavigableSet<Long> ids = ids(role);
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        Iterator<Long> keys = ids.iterator();
+        for (int skipped = 0; skipped < offset && keys.hasNext(); skipped++) {
+            keys.next();
+        }
+        Long first = keys.hasNext() ? keys.next() : null;
+        return first == null ? Collections.emptyList() : collect(ids.tailSet(first, true), limit);
+    }
+
+    public int countByRole(String role) {
+        NavigableSet<Long> ids = idsByRole.get(role.toLowerCase(Locale.ROOT));
+        return ids == null ? 0 : ids.size();
+    }
+
+    private NavigableSet<Long> ids(String role) {
+        return role == null ? allIds : idsByRole.get(role.toLowerCase(Locale.ROOT));
+    }
+
+    private List<User> collect(NavigableSet<Long> ids, int limit) {
+        List<User> page = new ArrayList<>(Math.min(limit, 64));
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) { // removed since the iterator passed the key
+                page.add(user);
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    private void index(Long id, User user) {
+        allIds.add(id);
+        String role = roleKey(user);
+        if (role != null) {
+            idsByRole.computeIfAbsent(role, key -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    private void unindex(Long id, User user) {
+        String role = roleKey(user);
+        NavigableSet<Long> ids = role == null ? null : idsByRole.get(role);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    private static String roleKey(User user) {
+        return user.getRole() == null ? null : user.getRole().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,268 @@
+package com.lms.LearningManagementSystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.LearningManagementSystem.Model.Assessment.Assignment;
+import com.lms.LearningManagementSystem.Model.Assessment.Difficulty;
+import com.lms.LearningManagementSystem.Model.Assessment.Grading;
+import com.lms.LearningManagementSystem.Model.Assessment.GradingRun;
+import com.lms.LearningManagementSystem.Model.Assessment.GradingType;
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+import com.lms.LearningManagementSystem.Model.Assessment.Quiz;
+import com.lms.LearningManagementSystem.Model.Assessment.QuizBlueprint;
+import com.lms.LearningManagementSystem.Model.Assessment.QuizSection;
+import com.lms.LearningManagementSystem.Service.AssessmentService;
+import com.lms.LearningManagementSystem.Service.GradingStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssessmentServiceTest {
+
+    private AssessmentService assessmentService;
+
+    @BeforeEach
+    void setUp() {
+        assessmentService = new AssessmentService();
+        List<Question> bank = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            bank.add(new Question(id, "Question " + id, List.of("a", "b", "c"), "a"));
+        }
+        bank.get(1).setWeight(3);
+        bank.get(2).setPartialCredit(Map.of("b", 0.5));
+        assessmentService.addQuestions(bank);
+    }
+
+    @Test
+    void testCorrectAnswersCount_WeightedWithPartialCredit() {
+        Quiz quiz = assessmentService.createQuiz("Weighted", 4, 6);
+        assertTrue(quiz.getQuestions().stream().allMatch(question -> question.getCorrectAnswer() == null));
+
+        // Q1 right (1), Q2 right (3), Q3 half credit (0.5), Q4 wrong, plus an answer to a question outside the quiz
+        assessmentService.SubmitQuiz(quiz.getId(), 7L, Map.of("1", "a", "2", "a", "3", "b", "4", "c", "99", "a"));
+        assertEquals(2, assessmentService.correctAnswersCount(quiz.getId(), 7L));
+        assertEquals("4.50 / 6", assessmentService.trackStudentQuizPerformance(7L).get(0).getMarks());
+        assertEquals("Well Done! Keep Improving!", assessmentService.trackStudentQuizPerformance(7L).get(0).getFeedback());
+
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.correctAnswersCount(404L, 7L));
+    }
+
+    @Test
+    void testSubmitQuiz_StudentsDoNotOverwriteEachOther() {
+        Quiz quiz = assessmentService.createQuiz("Concurrent", 4, 6);
+        assessmentService.SubmitQuiz(quiz.getId(), 1L, Map.of("1", "a", "2", "a", "3", "a", "4", "a"));
+        assessmentService.SubmitQuiz(quiz.getId(), 2L, Map.of("1", "c"));
+        assertEquals(4, assessmentService.correctAnswersCount(quiz.getId(), 1L));
+        assertEquals(0, assessmentService.correctAnswersCount(quiz.getId(), 2L));
+
+        // A resubmission replaces the earlier answers
+        assessmentService.SubmitQuiz(quiz.getId(), 2L, Map.of("1", "a"));
+        assertEquals(1, assessmentService.correctAnswersCount(quiz.getId(), 2L));
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.correctAnswersCount(quiz.getId(), 3L));
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.SubmitQuiz(404L, 1L, Map.of()));
+    }
+
+    @Test
+    void testCloseQuiz_GradesEverySubmissionInParallelBatches() throws Exception {
+        AssessmentService parallel = new AssessmentService(4);
+        parallel.addQuestions(List.of(new Question(1L, "Only", List.of("a", "b"), "a")));
+        Quiz quiz = parallel.createQuiz("Final", 1, 1);
+        for (long student = 1; student <= 1_000; student++) {
+            parallel.SubmitQuiz(quiz.getId(), student, Map.of("1", student % 4 == 0 ? "b" : "a"));
+        }
+        assertEquals(1, parallel.previewCorrectAnswers(quiz.getId(), 1L));
+        assertTrue(parallel.trackStudentQuizPerformance(1L).isEmpty(), "previews record nothing");
+
+        GradingRun run = parallel.closeQuiz(quiz.getId());
+        assertSame(run, parallel.closeQuiz(quiz.getId()));
+        assertThrows(IllegalArgumentException.class, () -> parallel.SubmitQuiz(quiz.getId(), 5_000L, Map.of("1", "a")));
+        run.getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertTrue(run.isComplete());
+        assertEquals(1_000, run.getGraded());
+        assertEquals("1 / 1", parallel.trackStudentQuizPerformance(7L).get(0).getMarks());
+        assertEquals("0 / 1", parallel.trackStudentQuizPerformance(8L).get(0).getMarks());
+        parallel.shutdown();
+    }
+
+    @Test
+    void testCloseQuiz_FailedRunStaysVisibleAndRetriesOnlyWhatFailed() throws Exception {
+        AtomicBoolean storeDown = new AtomicBoolean(true);
+        AssessmentService flaky = new AssessmentService(1, new GradingStore() {
+            @Override
+            public void addAll(Collection<Grading> batch) {
+                if (storeDown.getAndSet(false)) {
+                    throw new IllegalStateException("Grading store unavailable.");
+                }
+                super.addAll(batch);
+            }
+        });
+        flaky.addQuestions(List.of(new Question(1L, "Only", List.of("a", "b"), "a")));
+        Quiz quiz = flaky.createQuiz("Final", 1, 1);
+        for (long student = 1; student <= 600; student++) {
+            flaky.SubmitQuiz(quiz.getId(), student, Map.of("1", "a"));
+        }
+
+        GradingRun failed = flaky.closeQuiz(quiz.getId());
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> failed.getCompletion().get(10, TimeUnit.SECONDS));
+        assertEquals("Grading store unavailable.", error.getCause().getCause().getMessage());
+        assertTrue(failed.isComplete());
+        assertTrue(failed.getFailed() > 0);
+        assertEquals(600, failed.getGraded() + failed.getFailed());
+        assertSame(failed, flaky.getGradingRun(quiz.getId()), "a failed run stays visible until it is retried");
+        assertEquals("FAILED", failed.getStatus());
+
+        GradingRun retry = flaky.closeQuiz(quiz.getId());
+        assertNotSame(failed, retry);
+        assertEquals(failed.getFailed(), retry.getSubmissions());
+        retry.getCompletion().get(10, TimeUnit.SECONDS);
+        assertSame(retry, flaky.getGradingRun(quiz.getId()));
+        assertEquals("GRADED", retry.getStatus());
+        assertEquals(600, flaky.findGradings(GradingType.QUIZ, quiz.getId()).size(), "every student graded exactly once");
+        assertSame(retry, flaky.closeQuiz(quiz.getId()));
+        flaky.shutdown();
+    }
+
+    @Test
+    void testCreateQuiz_PerStudentDrawsAreReproducibleAndGradedAgainstTheirOwnKey() {
+        List<Question> more = new ArrayList<>();
+        for (long id = 5; id <= 200; id++) {
+            more.add(new Question(id, "Question " + id, List.of("a", "b"), "a"));
+        }
+        assessmentService.addQuestions(more);
+        Quiz quiz = assessmentService.createQuiz("Variants", 10, 10, true);
+
+        Quiz first = assessmentService.findQuizFor(quiz.getId(), 1L);
+        Quiz again = assessmentService.findQuizFor(quiz.getId(), 1L);
+        Quiz other = assessmentService.findQuizFor(quiz.getId(), 2L);
+        List<Long> firstIds = first.getQuestions().stream().map(Question::getId).toList();
+        assertEquals(firstIds, again.getQuestions().stream().map(Question::getId).toList());
+        assertNotEquals(firstIds, other.getQuestions().stream().map(Question::getId).toList());
+        assertEquals(10, new HashSet<>(firstIds).size(), "drawn without replacement");
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.findQuizFor(quiz.getId(), null),
+                "the sample draw is nobody's quiz");
+
+        // Adding questions later does not change a draw: it comes from the bank as it was
+        assessmentService.addQuestions(List.of(new Question(500L, "Late", List.of("a"), "a")));
+        assertEquals(firstIds, assessmentService.findQuizFor(quiz.getId(), 1L).getQuestions().stream()
+                .map(Question::getId).toList());
+
+        Map<String, String> allA = new HashMap<>();
+        firstIds.forEach(id -> allA.put(id.toString(), "a"));
+        assessmentService.SubmitQuiz(quiz.getId(), 1L, allA);
+        assertEquals(10, assessmentService.correctAnswersCount(quiz.getId(), 1L));
+        assessmentService.SubmitQuiz(quiz.getId(), 2L, allA);
+        assertTrue(assessmentService.correctAnswersCount(quiz.getId(), 2L) < 10, "answers to another draw do not count");
+    }
+
+    @Test
+    void testAddQuestions_RejectsDuplicateIdsWithoutAddingAny() {
+        List<Question> batch = List.of(new Question(10L, "New", List.of("x"), "x"),
+                new Question(2L, "Duplicate", List.of("x"), "x"));
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.addQuestions(batch));
+        assertNull(assessmentService.findQuestionById(10L));
+        assertEquals("Question 2", assessmentService.findQuestionById(2L).getText());
+    }
+
+    @Test
+    void testCreateQuiz_BlueprintDrawsFromTagAndDifficultyPartitions() {
+        List<Question> tagged = new ArrayList<>();
+        for (long id = 100; id < 160; id++) {
+            Question question = new Question(id, "Question " + id, List.of("a", "b"), "a");
+            question.setDifficulty(Difficulty.values()[(int) (id % 3)]);
+            question.setTags(id < 130 ? Set.of("Loops") : Set.of("oop", "loops"));
+            tagged.add(question);
+        }
+        assessmentService.addQuestions(tagged);
+
+        QuizBlueprint blueprint = new QuizBlueprint();
+        blueprint.setTitle("Blueprint");
+        blueprint.setTotalMarks(12);
+        blueprint.getSections().add(section("oop", Difficulty.HARD, null, 3));
+        blueprint.getSections().add(section("LOOPS", Difficulty.EASY, null, 5));
+        blueprint.getSections().add(section("loops", null, Map.of(Difficulty.MEDIUM, 1.0, Difficulty.HARD, 0.0), 4));
+        Quiz quiz = assessmentService.createQuiz(blueprint);
+
+        List<Question> questions = quiz.getQuestions();
+        assertEquals(12, questions.size());
+        assertEquals(12, questions.stream().map(Question::getId).distinct().count(), "no question is drawn twice");
+        assertTrue(questions.subList(0, 3).stream().allMatch(q -> q.getId() >= 130 && q.getDifficulty() == Difficulty.HARD));
+        assertTrue(questions.subList(3, 8).stream().allMatch(q -> q.getDifficulty() == Difficulty.EASY));
+        assertTrue(questions.subList(8, 12).stream().allMatch(q -> q.getDifficulty() == Difficulty.MEDIUM), "zero weight is never drawn");
+        assertTrue(questions.stream().allMatch(q -> q.getId() >= 100), "untagged questions stay out");
+
+        // An even mix over exactly enough questions splits evenly every time
+        assessmentService.addQuestions(List.of(tagged("E1", 700L, Difficulty.EASY, "pairs"), tagged("E2", 701L, Difficulty.EASY, "pairs"),
+                tagged("H1", 702L, Difficulty.HARD, "pairs"), tagged("H2", 703L, Difficulty.HARD, "pairs")));
+        QuizBlueprint even = new QuizBlueprint();
+        even.getSections().add(section("pairs", null, Map.of(Difficulty.EASY, 1.0, Difficulty.HARD, 1.0), 4));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(2, assessmentService.createQuiz(even).getQuestions().stream()
+                    .filter(q -> q.getDifficulty() == Difficulty.EASY).count());
+        }
+        even.getSections().set(0, section("pairs", null, Map.of(Difficulty.EASY, 2.0, Difficulty.HARD, 1.0), 3));
+        assertEquals(List.of(Difficulty.EASY, Difficulty.EASY, Difficulty.HARD), assessmentService.createQuiz(even).getQuestions()
+                .stream().map(Question::getDifficulty).toList());
+
+        // Partitions grow with every import
+        assessmentService.addQuestions(List.of(tagged("Late", 900L, Difficulty.HARD, "graphs")));
+        QuizBlueprint late = new QuizBlueprint();
+        late.getSections().add(section("graphs", Difficulty.HARD, null, 1));
+        assertEquals(900L, assessmentService.createQuiz(late).getQuestions().get(0).getId());
+
+        late.getSections().add(section("graphs", Difficulty.HARD, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.createQuiz(late));
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.createQuiz(new QuizBlueprint()));
+    }
+
+    @Test
+    void testTrackStudentPerformance_IndexedByStudentTypeAndAssessment() throws Exception {
+        Quiz quiz = assessmentService.createQuiz("Indexed", 4, 4);
+        Assignment assignment = assessmentService.createAssignment("Essay", "500 words");
+        assessmentService.SubmitQuiz(quiz.getId(), 1L, Map.of("1", "a"));
+        assessmentService.correctAnswersCount(quiz.getId(), 1L);
+        assessmentService.gradeAssignment(assignment.getId(), 1L, "8 / 10", "Good");
+        assessmentService.gradeAssignment(assignment.getId(), 2L, "6 / 10", "Fair");
+        assessmentService.SubmitQuiz(quiz.getId(), 2L, Map.of("1", "b"));
+        assessmentService.correctAnswersCount(quiz.getId(), 2L);
+
+        List<Grading> student = assessmentService.trackStudentPerformance(1L);
+        assertEquals(List.of(GradingType.QUIZ, GradingType.ASSIGNMENT), student.stream().map(Grading::getType).toList());
+        assertEquals("8 / 10", assessmentService.trackStudentAssignments(1L).get(0).getMarks());
+        assertEquals(1, assessmentService.trackStudentQuizPerformance(2L).size());
+        assertTrue(assessmentService.trackStudentPerformance(3L).isEmpty());
+
+        // Quiz and assignment ids overlap; the type keeps their gradings apart
+        assertEquals(List.of(1L, 2L), assessmentService.findGradings(GradingType.QUIZ, quiz.getId()).stream()
+                .map(Grading::getStudentId).toList());
+        assertEquals(2, assessmentService.findGradings(GradingType.ASSIGNMENT, assignment.getId()).size());
+        assertThrows(IllegalArgumentException.class, () -> assessmentService.gradeAssignment(404L, 1L, "1", "?"));
+
+        // Clients still see the old type strings
+        String json = new ObjectMapper().writeValueAsString(student);
+        assertTrue(json.contains("\"type\":\"quiz\"") && json.contains("\"type\":\"Assignment\""), json);
+        assertEquals(GradingType.ASSIGNMENT, GradingType.of("assignment"));
+    }
+
+    private static QuizSection section(String tag, Difficulty difficulty, Map<Difficulty, Double> mix, int count) {
+        QuizSection section = new QuizSection();
+        section.setTag(tag);
+        section.setDifficulty(difficulty);
+        section.setMix(mix);
+        section.setCount(count);
+        return section;
+    }
+
+    private static Question tagged(String text, long id, Difficulty difficulty, String tag) {
+        Question question = new Question(id, text, List.of("a"), "a");
+        question.setDifficulty(difficulty);
+        question.setTags(Set.of(tag));
+        return question;
+    }
+}
@@ -0,0 +1,55 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.User.User;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registers users through UserService.addUser and measures registration throughput and
+ * authenticate latency as the user count grows to 1M. Not picked up by surefire; run the main
+ * method directly (1M users need roughly 1 GB of heap).
+ */
+public class AuthBenchmark {
+
+    private static final int[] USER_COUNTS = {10_000, 100_000, 1_000_000};
+    private static final int LOGINS = 1_000_000;
+
+    public static void main(String[] args) {
+        UserService userService = new UserService(null, null, null);
+        int registered = 0;
+        for (int target : USER_COUNTS) {
+            int before = registered;
+            long start = System.nanoTime();
+            for (; registered < target; registered++) {
+                User user = new User();
+                user.setName("Student " + registered);
+                user.setEmail("Student" + registered + "@Example.com");
+                user.setPassword("secret" + registered);
+                user.setRole("student");
+                userService.addUser(user);
+            }
+            long registerNanos = System.nanoTime() - start;
+
+            long sink = 0;
+            for (int i = 0; i < LOGINS; i++) {
+                sink += login(userService, target); // warm-up
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < LOGINS; i++) {
+                sink += login(userService, target);
+            }
+            long loginNanos = System.nanoTime() - start;
+
+            System.out.printf("users=%,9d  registration=%,9.0f users/s  avg login=%6.1f ns  (sink=%d)%n",
+                    target, (target - before) / (registerNanos / 1e9),
+                    (double) loginNanos / LOGINS, sink);
+        }
+    }
+
+    private static int login(UserService userService, int users) {
+        int n = ThreadLocalRandom.current().nextInt(users);
+        User user = userService.authenticate("student" + n + "@example.com", "secret" + n);
+        return user == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,68 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Assessment.GradingRun;
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+import com.lms.LearningManagementSystem.Model.Assessment.Quiz;
+import com.lms.LearningManagementSystem.Service.AssessmentService;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes a quiz with 200,000 submissions (by default) and times AssessmentService.closeQuiz until
+ * its grading run completes, with a grading pool of 1, 4, 8 and 16 threads. Reports submissions
+ * graded per second and the speed-up over one thread, which can only approach the thread count
+ * on a machine with at least that many cores. Not picked up by surefire; run the main method
+ * directly, optionally with the number of submissions.
+ */
+public class BatchGradingBenchmark {
+
+    private static final int[] PARALLELISM = {1, 4, 8, 16};
+    private static final int QUIZ_SIZE = 50;
+    private static final int ROUNDS = 3;
+    private static final List<String> OPTIONS = List.of("a", "b", "c", "d");
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.out.printf("cores=%d  submissions=%,d  questions=%d%n",
+                Runtime.getRuntime().availableProcessors(), students, QUIZ_SIZE);
+        List<Question> bank = new ArrayList<>();
+        for (long id = 1; id <= QUIZ_SIZE; id++) {
+            Question question = new Question(id, "Question " + id, OPTIONS, "a");
+            question.setWeight(1 + (int) (id % 3));
+            bank.add(question);
+        }
+        Random random = new Random(11);
+        List<Map<String, String>> answers = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            Map<String, String> submission = new HashMap<>();
+            for (long id = 1; id <= QUIZ_SIZE; id++) {
+                submission.put(Long.toString(id), OPTIONS.get(random.nextInt(4)));
+            }
+            answers.add(submission);
+        }
+
+        double single = 0;
+        for (int threads : PARALLELISM) {
+            double best = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                AssessmentService assessmentService = new AssessmentService(threads);
+                assessmentService.addQuestions(bank);
+                Quiz quiz = assessmentService.createQuiz("Final", QUIZ_SIZE, QUIZ_SIZE);
+                for (int student = 0; student < students; student++) {
+                    assessmentService.SubmitQuiz(quiz.getId(), (long) student, answers.get(student));
+                }
+                System.gc();
+                long start = System.nanoTime();
+                GradingRun run = assessmentService.closeQuiz(quiz.getId());
+                run.getCompletion().get(5, TimeUnit.MINUTES);
+                best = Math.max(best, run.getGraded() / ((System.nanoTime() - start) / 1e9));
+                assessmentService.shutdown();
+            }
+            if (threads == 1) {
+                single = best;
+            }
+            System.out.printf("threads=%2d  graded=%,12.0f subs/s  speed-up=%.2fx%n", threads, best, best / single);
+        }
+    }
+}
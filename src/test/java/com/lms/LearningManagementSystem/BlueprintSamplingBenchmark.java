@@ -0,0 +1,100 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Assessment.Difficulty;
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+import com.lms.LearningManagementSystem.Model.Assessment.QuizBlueprint;
+import com.lms.LearningManagementSystem.Model.Assessment.QuizSection;
+import com.lms.LearningManagementSystem.Service.AssessmentService;
+
+import java.util.*;
+
+/**
+ * Imports banks of 10k, 100k and 1M questions over 20 topics and three difficulties, in batches of
+ * 1,000 through AssessmentService.addQuestions, then draws a blueprint quiz ("5 easy from topic 3,
+ * 3 hard from topic 7, 4 from topic 11 mixed 1:2:1"). Reports import cost per question and
+ * microseconds per quiz, next to the filter-and-shuffle a flat bank needs for the same blueprint.
+ * Not picked up by surefire; run the main method directly.
+ */
+public class BlueprintSamplingBenchmark {
+
+    private static final int[] BANK_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int TOPICS = 20;
+    private static final int BATCH = 1_000;
+
+    public static void main(String[] args) {
+        QuizBlueprint blueprint = new QuizBlueprint();
+        blueprint.setTitle("Blueprint");
+        blueprint.getSections().add(section("topic-3", Difficulty.EASY, null, 5));
+        blueprint.getSections().add(section("topic-7", Difficulty.HARD, null, 3));
+        blueprint.getSections().add(section("topic-11", null,
+                Map.of(Difficulty.EASY, 1.0, Difficulty.MEDIUM, 2.0, Difficulty.HARD, 1.0), 4));
+
+        for (int pass = 0; pass <= BANK_SIZES.length; pass++) { // the first pass is warm-up
+            int size = BANK_SIZES[Math.max(0, pass - 1)];
+            AssessmentService assessmentService = new AssessmentService(1);
+            List<Question> bank = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Question question = new Question((long) i, "Question " + i, List.of("a", "b"), "a");
+                question.setDifficulty(Difficulty.values()[i % 3]);
+                question.setTags(Set.of("topic-" + (i / 3 % TOPICS)));
+                bank.add(question);
+            }
+            long start = System.nanoTime();
+            for (int from = 0; from < size; from += BATCH) {
+                assessmentService.addQuestions(bank.subList(from, Math.min(size, from + BATCH)));
+            }
+            double importNanos = (double) (System.nanoTime() - start) / size;
+
+            // Few enough that appending to the quiz list stays out of the numbers
+            int blueprints = 2_000;
+            int flats = Math.max(10, 1_000_000 / size);
+            long sink = 0;
+            double blueprintMicros = 0;
+            double flatMicros = 0;
+            Random random = new Random(5);
+            for (int round = 0; round < 2; round++) {
+                start = System.nanoTime();
+                for (int i = 0; i < blueprints; i++) {
+                    sink += assessmentService.createQuiz(blueprint).getQuestions().size();
+                }
+                blueprintMicros = (System.nanoTime() - start) / 1e3 / blueprints;
+
+                start = System.nanoTime();
+                for (int i = 0; i < flats; i++) {
+                    sink += flatDraw(bank, "topic-3", Difficulty.EASY, 5, random).size();
+                    sink += flatDraw(bank, "topic-7", Difficulty.HARD, 3, random).size();
+                    sink += flatDraw(bank, "topic-11", null, 4, random).size();
+                }
+                flatMicros = (System.nanoTime() - start) / 1e3 / flats;
+            }
+            if (pass == 0) {
+                assessmentService.shutdown();
+                continue;
+            }
+            System.out.printf("bank=%,9d  import=%6.0f ns/question  blueprint=%6.2f us/quiz  filter+shuffle=%,10.2f us/quiz"
+                    + "  (sink=%d)%n", size, importNanos, blueprintMicros, flatMicros, sink);
+            assessmentService.shutdown();
+        }
+    }
+
+    // What a flat bank has to do: scan for the matching questions, shuffle them, take the first few
+    private static List<Question> flatDraw(List<Question> bank, String tag, Difficulty difficulty, int count, Random random) {
+        List<Question> matching = new ArrayList<>();
+        for (Question question : bank) {
+            if (question.getTags().contains(tag) && (difficulty == null || question.getDifficulty() == difficulty)) {
+                matching.add(question);
+            }
+        }
+        Collections.shuffle(matching, random);
+        return matching.subList(0, count);
+    }
+
+    private static QuizSection section(String tag, Difficulty difficulty, Map<Difficulty, Double> mix, int count) {
+        QuizSection section = new QuizSection();
+        section.setTag(tag);
+        section.setDifficulty(difficulty);
+        section.setMix(mix);
+        section.setCount(count);
+        return section;
+    }
+}
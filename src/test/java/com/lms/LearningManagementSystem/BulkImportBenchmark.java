@@ -0,0 +1,85 @@
+package com.lms.LearningManagementSystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.LearningManagementSystem.Service.UserService.UserImporter;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Streams a generated CSV upload through UserImporter and reports rows per second. The same file is
+ * then imported a second time, so every row is rejected as a duplicate and the user store stays the
+ * same size: the heap sampled during that pass shows what the import itself holds on to, which
+ * should not grow with the file. Not picked up by surefire; run the main method directly,
+ * optionally with the number of rows (default 1M, which needs roughly 1 GB of heap).
+ */
+public class BulkImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        UserService userService = new UserService(null, null, null);
+        UserImporter importer = new UserImporter(userService, new ObjectMapper());
+
+        long start = System.nanoTime();
+        Map<String, Object> summary = importer.importUsers(new GeneratedCsv(rows), UserImporter.Format.CSV, Writer.nullWriter());
+        long nanos = System.nanoTime() - start;
+        System.out.printf("first pass   %s  %,.0f rows/s%n", summary, rows / (nanos / 1e9));
+
+        System.gc();
+        long baseline = usedHeap();
+        GeneratedCsv again = new GeneratedCsv(rows);
+        start = System.nanoTime();
+        summary = importer.importUsers(again, UserImporter.Format.CSV, Writer.nullWriter());
+        nanos = System.nanoTime() - start;
+        System.out.printf("second pass  %s  %,.0f rows/s  heap over baseline: max sampled=%,d KB  after gc=%,d KB%n",
+                summary, rows / (nanos / 1e9), (again.maxHeap - baseline) / 1024, gcHeap(baseline) / 1024);
+    }
+
+    private static long gcHeap(long baseline) {
+        System.gc();
+        return usedHeap() - baseline;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Produces the upload a line at a time, so the benchmark itself never holds the file
+    private static final class GeneratedCsv extends Reader {
+        private final int rows;
+        private int row = -1;
+        private String line = "";
+        private int position;
+        private long maxHeap;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == line.length()) {
+                if (++row > rows) {
+                    return -1;
+                }
+                line = row == 0 ? "name,email,password,role\n"
+                        : "Student " + row + ",student" + row + "@example.com,secret" + row + ",student\n";
+                position = 0;
+                if (row % 50_000 == 0) {
+                    maxHeap = Math.max(maxHeap, usedHeap());
+                }
+            }
+            int count = Math.min(length, line.length() - position);
+            line.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Course;
+import com.lms.LearningManagementSystem.Model.Lesson;
+import com.lms.LearningManagementSystem.Model.User.Admin;
+import com.lms.LearningManagementSystem.Service.CourseService;
+import com.lms.LearningManagementSystem.Service.LessonCheckInService;
+import com.lms.LearningManagementSystem.Service.NotificationService;
+import com.lms.LearningManagementSystem.Service.NotificationStreams;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulates the start of a lecture: every student of a large course checks in at once through
+ * CourseService.checkIn, one virtual thread per student. Reports sustained check-ins per second.
+ * Not picked up by surefire; run the main method directly.
+ */
+public class CheckInLoadBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int LECTURES = 10;
+
+    public static void main(String[] args) throws Exception {
+        Admin admin = new Admin();
+        admin.setId(-1L);
+        UserService.userStore.put(admin.getId(), admin);
+
+        LessonCheckInService checkIns = new LessonCheckInService(900, 60, 50);
+        CourseService courseService = new CourseService(new NotificationService(null, new NotificationStreams(60_000, 20), 16, 0, 1, 300, 3600, 30), checkIns);
+        Course course = courseService.createCourse(admin.getId(), "Intro to Programming", "Large intro course", 30);
+        for (long id = 1; id <= STUDENTS; id++) {
+            courseService.enrollStudent(course, id);
+        }
+
+        for (int lecture = 1; lecture <= LECTURES; lecture++) {
+            Lesson lesson = courseService.addLesson(course.getId(), "Lecture " + lecture, "");
+            String otp = courseService.generateOtp(course.getId(), lesson.getId());
+
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Runnable> students = new ArrayList<>(STUDENTS);
+            for (long id = 1; id <= STUDENTS; id++) {
+                long studentId = id;
+                students.add(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (courseService.checkIn(course.getId(), lesson.getId(), studentId, otp)) {
+                        accepted.incrementAndGet();
+                    }
+                });
+            }
+
+            long elapsed;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                students.forEach(executor::submit);
+                long begin = System.nanoTime();
+                start.countDown();
+                executor.shutdown();
+                executor.awaitTermination(1, java.util.concurrent.TimeUnit.MINUTES);
+                checkIns.flush();
+                elapsed = System.nanoTime() - begin;
+            }
+
+            System.out.printf("lecture %2d: %,d check-ins in %6.1f ms = %,10.0f check-ins/s, present=%,d%n",
+                    lecture, accepted.get(), elapsed / 1e6, accepted.get() / (elapsed / 1e9), lesson.getPresentCount());
+        }
+        checkIns.shutdown();
+        UserService.userStore.remove(admin.getId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Course;
+import com.lms.LearningManagementSystem.Model.User.Admin;
+import com.lms.LearningManagementSystem.Service.CourseService;
+import com.lms.LearningManagementSystem.Service.LessonCheckInService;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures CourseService.findCourseById latency as the catalogue grows.
+ * Not picked up by surefire; run the main method directly.
+ */
+public class CourseLookupBenchmark {
+
+    private static final int[] CATALOGUE_SIZES = {100, 1_000, 10_000, 100_000};
+    private static final int LOOKUPS = 2_000_000;
+
+    public static void main(String[] args) {
+        Admin admin = new Admin();
+        admin.setId(-1L);
+        UserService.userStore.put(admin.getId(), admin);
+
+        for (int size : CATALOGUE_SIZES) {
+            CourseService courseService = new CourseService(null, new LessonCheckInService(900, 60, 50));
+            String[] ids = new String[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = courseService.createCourse(admin.getId(), "Course " + i, "Description " + i, 10).getId();
+            }
+
+            // Warm up, then time random lookups
+            long sink = 0;
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink += lookup(courseService, ids);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink += lookup(courseService, ids);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("courses=%,7d  avg lookup=%6.1f ns  (sink=%d)%n",
+                    size, (double) elapsed / LOOKUPS, sink);
+        }
+        UserService.userStore.remove(admin.getId());
+    }
+
+    private static int lookup(CourseService courseService, String[] ids) {
+        Course course = courseService.findCourseById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+        return course.getDuration();
+    }
+}
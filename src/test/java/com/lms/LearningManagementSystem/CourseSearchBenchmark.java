@@ -0,0 +1,67 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.User.Admin;
+import com.lms.LearningManagementSystem.Service.CourseService;
+import com.lms.LearningManagementSystem.Service.LessonCheckInService;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reports search latency percentiles for CourseService.searchCourses over a 50k course catalogue,
+ * first from one thread and then with every query on a fresh virtual thread, as requests run with
+ * spring.threads.virtual.enabled. Not picked up by surefire; run the main method directly.
+ */
+public class CourseSearchBenchmark {
+
+    private static final int COURSES = 50_000;
+    private static final int QUERIES = 20_000;
+    private static final String[] SUBJECTS = {"Algorithms", "Databases", "Networks", "Compilers", "Statistics",
+            "Calculus", "Physics", "Chemistry", "Biology", "History", "Economics", "Marketing", "Design",
+            "Security", "Robotics", "Linguistics", "Philosophy", "Psychology", "Geometry", "Accounting"};
+    private static final String[] LEVELS = {"Intro to", "Advanced", "Applied", "Topics in", "Foundations of"};
+
+    public static void main(String[] args) throws InterruptedException {
+        Admin admin = new Admin();
+        admin.setId(-1L);
+        UserService.userStore.put(admin.getId(), admin);
+
+        Random random = new Random(42);
+        CourseService courseService = new CourseService(null, new LessonCheckInService(900, 60, 50));
+        for (int i = 0; i < COURSES; i++) {
+            String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            String other = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            courseService.createCourse(admin.getId(),
+                    LEVELS[random.nextInt(LEVELS.length)] + " " + subject + " " + i,
+                    "A course on " + subject.toLowerCase() + " with applications to " + other.toLowerCase(), 30);
+        }
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            long[] latencies = new long[QUERIES];
+            for (int round = 0; round < 2; round++) { // first round is warm-up
+                for (int i = 0; i < QUERIES; i++) {
+                    String query = SUBJECTS[random.nextInt(SUBJECTS.length)]
+                            + (i % 3 == 0 ? " " + SUBJECTS[random.nextInt(SUBJECTS.length)] : "");
+                    int index = i;
+                    Runnable search = () -> {
+                        long start = System.nanoTime();
+                        courseService.searchCourses(query, 0, 20);
+                        latencies[index] = System.nanoTime() - start;
+                    };
+                    if (virtual) {
+                        Thread.ofVirtual().start(search).join();
+                    } else {
+                        search.run();
+                    }
+                }
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf("courses=%,d queries=%,d %-15s p50=%.3f ms  p99=%.3f ms  max=%.3f ms%n", COURSES, QUERIES,
+                    virtual ? "virtual-thread" : "single-thread", latencies[QUERIES / 2] / 1e6,
+                    latencies[(int) (QUERIES * 0.99)] / 1e6, latencies[QUERIES - 1] / 1e6);
+        }
+        UserService.userStore.remove(admin.getId());
+    }
+}
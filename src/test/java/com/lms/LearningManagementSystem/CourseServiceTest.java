@@ -0,0 +1,200 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.AttendanceMatrix;
+import com.lms.LearningManagementSystem.Model.Course;
+import com.lms.LearningManagementSystem.Model.Lesson;
+import com.lms.LearningManagementSystem.Model.User.Admin;
+import com.lms.LearningManagementSystem.Model.User.Instructor;
+import com.lms.LearningManagementSystem.Service.CourseService;
+import com.lms.LearningManagementSystem.Service.LessonCheckInService;
+import com.lms.LearningManagementSystem.Service.NotificationService;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CourseServiceTest {
+
+    private static final Long ADMIN_ID = 900L;
+
+    private CourseService courseService;
+
+    @BeforeEach
+    void setUp() {
+        courseService = new CourseService(mock(NotificationService.class), new LessonCheckInService(900, 60, 50));
+
+        Admin admin = new Admin();
+        admin.setId(ADMIN_ID);
+        admin.setName("Admin User");
+        UserService.userStore.put(ADMIN_ID, admin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        UserService.userStore.remove(ADMIN_ID);
+    }
+
+    @Test
+    void testSearchCourses_RanksTitleMatchesFirst() {
+        Course databases = courseService.createCourse(ADMIN_ID, "Databases", "Relational modelling and SQL", 30);
+        Course networks = courseService.createCourse(ADMIN_ID, "Networks", "Routing, with a short look at databases", 30);
+        courseService.createCourse(ADMIN_ID, "Compilers", "Parsing and code generation", 30);
+
+        List<Course> results = courseService.searchCourses("database");
+
+        assertEquals(List.of(databases, networks), results);
+    }
+
+    @Test
+    void testSearchCourses_Paginates() {
+        for (int i = 0; i < 5; i++) {
+            courseService.createCourse(ADMIN_ID, "Algorithms " + i, "Sorting and searching", 30);
+        }
+
+        List<Course> firstPage = courseService.searchCourses("algorithms", 0, 2);
+        List<Course> lastPage = courseService.searchCourses("algorithms", 2, 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, lastPage.size());
+        assertFalse(firstPage.contains(lastPage.get(0)));
+    }
+
+    @Test
+    void testSearchCourses_FollowsUpdatesAndDeletes() {
+        Course course = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+
+        courseService.updateCourse(ADMIN_ID, course.getId(), "Intro to Kotlin", "Objects and classes", 30);
+        assertTrue(courseService.searchCourses("java").isEmpty());
+        assertEquals(List.of(course), courseService.searchCourses("kotlin"));
+
+        courseService.deleteCourse(ADMIN_ID, course.getId());
+        assertTrue(courseService.searchCourses("kotlin").isEmpty());
+    }
+
+    @Test
+    void testSuggestCourses_MatchesWordPrefixesAndTypos() {
+        courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+        courseService.createCourse(ADMIN_ID, "Advanced Java", "Concurrency", 30);
+        courseService.createCourse(ADMIN_ID, "Databases", "SQL", 30);
+
+        assertEquals(List.of("Advanced Java", "Intro to Java"), courseService.suggestCourses("jav", 10));
+        assertEquals(List.of("Databases"), courseService.suggestCourses("datbase", 10));
+        assertTrue(courseService.suggestCourses("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void testSuggestCourses_FollowsRenames() {
+        Course course = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+
+        courseService.updateCourse(ADMIN_ID, course.getId(), "Intro to Kotlin", "Objects and classes", 30);
+
+        assertEquals(List.of("Intro to Kotlin"), courseService.suggestCourses("intro", 10));
+        assertTrue(courseService.suggestCourses("java", 10).isEmpty());
+    }
+
+    @Test
+    void testReverseIndexes_TrackEnrollmentsAssignmentsAndDeletes() {
+        Course java = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+        Course sql = courseService.createCourse(ADMIN_ID, "Databases", "SQL", 30);
+        Instructor instructor = new Instructor();
+        instructor.setId(901L);
+
+        assertTrue(courseService.enrollStudent(java, 42L));
+        assertFalse(courseService.enrollStudent(java, 42L));
+        assertTrue(courseService.enrollStudent(sql, 42L));
+        java.setInstructor(instructor);
+        courseService.onInstructorAssigned(java, null);
+
+        assertEquals(Set.of(java, sql), new HashSet<>(courseService.getCoursesForStudent(42L)));
+        assertEquals(List.of(java), courseService.getCoursesForInstructor(901L));
+
+        courseService.deleteCourse(ADMIN_ID, java.getId());
+
+        assertEquals(List.of(sql), courseService.getCoursesForStudent(42L));
+        assertTrue(courseService.getCoursesForInstructor(901L).isEmpty());
+        assertFalse(courseService.enrollStudent(java, 43L), "a deleted course takes no enrollments");
+        assertTrue(courseService.getCoursesForStudent(43L).isEmpty());
+    }
+
+    @Test
+    void testMarkAttendance_ResolvesLessonWithinItsCourse() {
+        Course java = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+        Course sql = courseService.createCourse(ADMIN_ID, "Databases", "SQL", 30);
+        Lesson lesson = courseService.addLesson(java.getId(), "Week 1", "Variables");
+        courseService.enrollStudent(java, 42L);
+
+        assertFalse(courseService.markAttendance(sql.getId(), lesson.getId(), "42", true));
+        assertFalse(courseService.markAttendance(java.getId(), lesson.getId(), "43", true));
+        assertTrue(courseService.markAttendance(java.getId(), lesson.getId(), "42", true));
+        assertEquals(Map.of("42", true), courseService.getLessonAttendance(java.getId(), lesson.getId()));
+
+        courseService.deleteCourse(ADMIN_ID, java.getId());
+        assertNull(courseService.findLesson(java.getId(), lesson.getId()));
+    }
+
+    @Test
+    void testAttendanceAnalytics() {
+        Course course = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+        Lesson week1 = courseService.addLesson(course.getId(), "Week 1", "Variables");
+        Lesson week2 = courseService.addLesson(course.getId(), "Week 2", "Loops");
+        courseService.enrollStudent(course, 42L);
+        courseService.enrollStudent(course, 7L);
+
+        courseService.markAttendance(course.getId(), week1.getId(), "42", true);
+        courseService.markAttendance(course.getId(), week2.getId(), "42", true);
+        courseService.markAttendance(course.getId(), week1.getId(), "7", false);
+
+        AttendanceMatrix matrix = courseService.getAttendanceMatrix(course.getId());
+        assertEquals(List.of(42L, 7L), matrix.getStudentIds());
+        assertEquals(List.of("PP", "A-"), matrix.getRows());
+        assertEquals(0.5, matrix.getCourseAttendanceRate());
+        assertEquals(1.0, courseService.getAttendanceRate(course.getId(), 42L));
+        assertEquals(0.0, courseService.getAttendanceRate(course.getId(), 7L));
+        assertEquals(List.of(7L), courseService.getStudentsBelowAttendance(course.getId(), 75));
+    }
+
+    @Test
+    void testCheckIn_RequiresCurrentOtpAndEnrollment() {
+        Course course = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+        Lesson lesson = courseService.addLesson(course.getId(), "Week 1", "Variables");
+        courseService.enrollStudent(course, 42L);
+
+        assertFalse(courseService.checkIn(course.getId(), lesson.getId(), 42L, "000000"));
+
+        String otp = courseService.generateOtp(course.getId(), lesson.getId());
+        assertEquals(otp, courseService.getCurrentOtp(course.getId(), lesson.getId()));
+        assertFalse(courseService.checkIn(course.getId(), lesson.getId(), 42L, otp.equals("000000") ? "000001" : "000000"));
+        assertFalse(courseService.checkIn(course.getId(), lesson.getId(), 43L, otp));
+        assertTrue(courseService.checkIn(course.getId(), lesson.getId(), 42L, otp));
+
+        assertEquals(Map.of("42", true), courseService.getLessonAttendance(course.getId(), lesson.getId()));
+    }
+
+    @Test
+    void testCheckIn_TurnsAwayAStudentAfterTooManyWrongCodes() {
+        Course course = courseService.createCourse(ADMIN_ID, "Intro to Java", "Objects and classes", 30);
+        Lesson lesson = courseService.addLesson(course.getId(), "Week 1", "Variables");
+        courseService.enrollStudent(course, 42L);
+        courseService.enrollStudent(course, 43L);
+        String otp = courseService.generateOtp(course.getId(), lesson.getId());
+        String wrong = otp.equals("000000") ? "000001" : "000000";
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertFalse(courseService.checkIn(course.getId(), lesson.getId(), 42L, wrong));
+        }
+        assertFalse(courseService.checkIn(course.getId(), lesson.getId(), 42L, otp), "locked out until the code rotates");
+        assertTrue(courseService.checkIn(course.getId(), lesson.getId(), 43L, otp), "other students are unaffected");
+
+        // A new session starts with a clean slate
+        String reopened = courseService.generateOtp(course.getId(), lesson.getId());
+        assertTrue(courseService.checkIn(course.getId(), lesson.getId(), 42L, reopened));
+    }
+}
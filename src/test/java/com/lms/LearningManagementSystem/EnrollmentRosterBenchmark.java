@@ -0,0 +1,89 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.EnrollmentRoster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the footprint and membership cost of EnrollmentRoster against the boxed List<Long>
+ * it replaced in Course, then times seat lookups and intersecting or merging two rosters of the
+ * same size. Not picked up by surefire; run the main method directly.
+ */
+public class EnrollmentRosterBenchmark {
+
+    private static final int[] ROSTER_SIZES = {50, 500, 2_000, 20_000};
+    private static final long STUDENT_ID_RANGE = 200_000;
+    private static final int PROBES = 1 << 16;
+    private static final int SET_OPERATIONS = 200;
+
+    // ArrayList header + backing array header, 4-byte compressed reference per slot, 16-byte Long per element
+    private static long boxedListBytes(List<Long> list, int capacity) {
+        return 24 + 16 + 4L * capacity + 16L * list.size();
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(7);
+        long[] probes = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = 1 + (long) (random.nextDouble() * STUDENT_ID_RANGE);
+        }
+
+        for (int rosterSize : ROSTER_SIZES) {
+            List<Long> list = new ArrayList<>();
+            EnrollmentRoster roster = new EnrollmentRoster();
+            while (roster.size() < rosterSize) {
+                long id = 1 + (long) (random.nextDouble() * STUDENT_ID_RANGE);
+                if (roster.add(id)) {
+                    list.add(id);
+                }
+            }
+            int capacity = Math.max(10, Integer.highestOneBit(rosterSize) * 2);
+
+            long listNanos = time(probes, id -> list.contains(id));
+            long rosterNanos = time(probes, roster::contains);
+
+            System.out.printf("roster=%,6d  List<Long>: %5.1f B/student %9.1f ns/contains  |  EnrollmentRoster: %4.1f B/student %6.1f ns/contains%n",
+                    rosterSize,
+                    (double) boxedListBytes(list, capacity) / rosterSize, listNanos / (double) PROBES,
+                    (double) roster.sizeInBytes() / rosterSize, rosterNanos / (double) PROBES);
+
+            EnrollmentRoster other = new EnrollmentRoster();
+            while (other.size() < rosterSize) {
+                other.add(1 + (long) (random.nextDouble() * STUDENT_ID_RANGE));
+            }
+            long seatNanos = time(probes, id -> roster.seatOf(id) >= 0);
+            long andNanos = timeSetOperation(() -> roster.and(other).size());
+            long orNanos = timeSetOperation(() -> roster.or(other).size());
+            System.out.printf("               seatOf %6.1f ns  |  and %,9.1f us  |  or %,9.1f us%n",
+                    seatNanos / (double) PROBES, andNanos / 1000.0 / SET_OPERATIONS, orNanos / 1000.0 / SET_OPERATIONS);
+        }
+    }
+
+    private static long timeSetOperation(java.util.function.IntSupplier operation) {
+        int total = 0;
+        for (int i = 0; i < SET_OPERATIONS; i++) { // warm-up
+            total += operation.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < SET_OPERATIONS; i++) {
+            total += operation.getAsInt();
+        }
+        long elapsed = System.nanoTime() - start;
+        return total < 0 ? 0 : elapsed;
+    }
+
+    private static long time(long[] probes, java.util.function.LongPredicate contains) {
+        int hits = 0;
+        for (long probe : probes) { // warm-up
+            hits += contains.test(probe) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (long probe : probes) {
+            hits += contains.test(probe) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        return hits < 0 ? 0 : elapsed;
+    }
+}
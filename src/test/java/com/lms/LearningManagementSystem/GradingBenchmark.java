@@ -0,0 +1,86 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Assessment.AnswerKey;
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+
+import java.util.*;
+
+/**
+ * Grades random quiz submissions two ways and reports submissions per second: the old loop (every
+ * answer against the whole bank, parsing the question id each time) and the compiled AnswerKey
+ * (encode the answers once, then one pass over a byte per question). Not picked up by surefire; run
+ * the main method directly, optionally with the bank size and the questions per quiz
+ * (default 5,000 and 50).
+ */
+public class GradingBenchmark {
+
+    private static final int SUBMISSIONS = 20_000;
+    private static final List<String> OPTIONS = List.of("a", "b", "c", "d");
+
+    public static void main(String[] args) {
+        int bankSize = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int quizSize = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        Random random = new Random(42);
+        List<Question> bank = new ArrayList<>(bankSize);
+        for (long id = 1; id <= bankSize; id++) {
+            Question question = new Question(id, "Question " + id, OPTIONS, OPTIONS.get(random.nextInt(4)));
+            question.setWeight(1 + random.nextInt(3));
+            if (id % 5 == 0) {
+                question.setPartialCredit(Map.of(OPTIONS.get((int) (id % 4)), 0.5));
+            }
+            bank.add(question);
+        }
+        List<Question> quiz = bank.subList(0, quizSize);
+        List<Map<String, String>> submissions = new ArrayList<>(SUBMISSIONS);
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            Map<String, String> answers = new HashMap<>();
+            for (Question question : quiz) {
+                answers.put(question.getId().toString(), OPTIONS.get(random.nextInt(4)));
+            }
+            submissions.add(answers);
+        }
+        AnswerKey key = new AnswerKey(quiz);
+        List<byte[]> encoded = new ArrayList<>(SUBMISSIONS);
+        for (Map<String, String> answers : submissions) {
+            encoded.add(key.encode(answers));
+        }
+
+        for (int round = 0; round < 3; round++) { // the first rounds are warm-up
+            long sink = 0;
+            int legacyCount = SUBMISSIONS / 20; // the old loop is far too slow for the full set
+            long start = System.nanoTime();
+            for (int i = 0; i < legacyCount; i++) {
+                sink += legacyCount(submissions.get(i), bank);
+            }
+            double legacy = legacyCount / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (Map<String, String> answers : submissions) {
+                sink += key.grade(key.encode(answers)).correct();
+            }
+            double compiled = SUBMISSIONS / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (byte[] chosen : encoded) {
+                sink += key.grade(chosen).correct();
+            }
+            double packed = SUBMISSIONS / ((System.nanoTime() - start) / 1e9);
+
+            System.out.printf("round %d  bank=%,d quiz=%d  old loop=%,12.0f subs/s  encode+grade=%,12.0f subs/s"
+                    + "  grade packed=%,12.0f subs/s  (sink=%d)%n", round + 1, bankSize, quizSize, legacy, compiled, packed, sink);
+        }
+    }
+
+    // AssessmentService.correctAnswersCount as it was: every answer scans the bank
+    private static int legacyCount(Map<String, String> submission, List<Question> bank) {
+        int count = 0;
+        for (Map.Entry<String, String> ans : submission.entrySet()) {
+            for (Question q : bank) {
+                if (q.getId().equals(Long.parseLong(ans.getKey())) && q.getCorrectAnswer().equals(ans.getValue())) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Assessment.Grading;
+import com.lms.LearningManagementSystem.Model.Assessment.GradingType;
+import com.lms.LearningManagementSystem.Service.GradingStore;
+
+import java.util.*;
+
+/**
+ * Records 2,000,000 gradings (by default) for 20,000 students, a term's worth, then looks up random
+ * students' quiz gradings the old way (scan every grading, compare the type string) and through
+ * GradingStore's (student, type) index. Reports lookups per second and the time to record all
+ * gradings in batches of 256. Not picked up by surefire; run the main method directly, optionally
+ * with the number of gradings.
+ */
+public class GradingIndexBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int BATCH = 256;
+
+    public static void main(String[] args) {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(3);
+        List<Grading> gradings = new ArrayList<>(total);
+        List<String> legacyTypes = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            GradingType type = random.nextInt(4) == 0 ? GradingType.ASSIGNMENT : GradingType.QUIZ;
+            gradings.add(new Grading((long) (i / STUDENTS), (long) random.nextInt(STUDENTS), type, "1 / 1", "Good Job!"));
+            legacyTypes.add(new String(type.getLabel())); // not interned, as when read from a request
+        }
+
+        for (int round = 0; round < 3; round++) { // the first round is warm-up
+            GradingStore store = new GradingStore();
+            long start = System.nanoTime();
+            for (int from = 0; from < total; from += BATCH) {
+                store.addAll(gradings.subList(from, Math.min(total, from + BATCH)));
+            }
+            double recordMillis = (System.nanoTime() - start) / 1e6;
+
+            long sink = 0;
+            int scans = 20;
+            start = System.nanoTime();
+            for (int i = 0; i < scans; i++) {
+                sink += legacyQuizzes(gradings, legacyTypes, (long) random.nextInt(STUDENTS)).size();
+            }
+            double scanRate = scans / ((System.nanoTime() - start) / 1e9);
+
+            int lookups = 200_000;
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                sink += store.forStudent((long) random.nextInt(STUDENTS), GradingType.QUIZ).size();
+            }
+            double indexRate = lookups / ((System.nanoTime() - start) / 1e9);
+
+            System.out.printf("round %d  gradings=%,d  record=%,6.0f ms  scan=%,10.1f lookups/s  index=%,12.0f lookups/s"
+                    + "  (sink=%d)%n", round + 1, total, recordMillis, scanRate, indexRate, sink);
+        }
+    }
+
+    // AssessmentService.trackStudentQuizPerformance as it was
+    private static List<Grading> legacyQuizzes(List<Grading> gradings, List<String> types, Long studentId) {
+        List<Grading> quizGrades = new ArrayList<>();
+        for (int i = 0; i < gradings.size(); i++) {
+            if (gradings.get(i).getStudentId().equals(studentId) && types.get(i).equals("quiz")) {
+                quizGrades.add(gradings.get(i));
+            }
+        }
+        return quizGrades;
+    }
+}
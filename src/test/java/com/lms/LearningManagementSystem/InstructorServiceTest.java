@@ -3,6 +3,8 @@ package com.lms.LearningManagementSystem;
 import com.lms.LearningManagementSystem.Model.Assessment.Grading;
 import com.lms.LearningManagementSystem.Model.Assessment.Quiz;
 import com.lms.LearningManagementSystem.Model.Course;
+import com.lms.LearningManagementSystem.Model.EnrollmentRoster;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
 import com.lms.LearningManagementSystem.Model.User.Instructor;
 import com.lms.LearningManagementSystem.Model.User.Student;
 import com.lms.LearningManagementSystem.Service.AssessmentService;
@@ -46,13 +48,16 @@ class InstructorServiceTest {
 
         // Simulate course service finding a course
         when(courseService.findCourseById(courseId)).thenReturn(course);
+        when(course.getEnrolledStudents()).thenReturn(new EnrollmentRoster());
         UserService.userStore.put(instructorId, instructor); // Store instructor in userStore
+        NotificationDelivery delivery = new NotificationDelivery("d1", "course:" + courseId, 0, System.nanoTime());
+        when(notificationService.broadcast(eq("course:" + courseId), eq("instructor"), any(), anyString())).thenReturn(delivery);
 
         // Call the method to test
-        boolean result = InstructorService.assignInstructorToCourse(instructorId, courseId);
+        NotificationDelivery result = InstructorService.assignInstructorToCourse(instructorId, courseId);
 
-        // Validate the outcome
-        assertTrue(result);
+        // Validate the outcome: the handle is the one for this assignment's broadcast
+        assertSame(delivery, result);
         verify(course).setInstructor(instructor);
         verify(notificationService).notifyUser(eq(instructorId), anyString());
     }
@@ -89,8 +94,8 @@ class InstructorServiceTest {
         // Store student in userStore
         UserService.userStore.put(studentId, student);
 
-        // Simulate attendance marking from course service
-        when(courseService.markAttendance(courseId, lessonId, studentId.toString(), true)).thenReturn(true);
+        // Simulate an OTP check-in accepted by course service
+        when(courseService.checkIn(courseId, lessonId, studentId, otp)).thenReturn(true);
 
         // Call the method to test
         boolean result = StudentService.markAttendance(studentId, courseId, lessonId, otp);
@@ -0,0 +1,313 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.EnrollmentRoster;
+import com.lms.LearningManagementSystem.Model.Notification;
+import com.lms.LearningManagementSystem.Model.NotificationDelivery;
+import com.lms.LearningManagementSystem.Model.User.Student;
+import com.lms.LearningManagementSystem.Service.NotificationService;
+import com.lms.LearningManagementSystem.Service.NotificationStreams;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private static final int STUDENTS = 1_000;
+    private static final int INBOX_CAPACITY = 3;
+
+    private final Map<Long, Student> students = new HashMap<>();
+    private UserService userService;
+    private NotificationStreams streams;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= STUDENTS; id++) {
+            Student student = new Student();
+            student.setId(id);
+            students.put(id, student);
+        }
+        userService = mock(UserService.class);
+        when(userService.getUserById(anyLong())).thenAnswer(invocation -> students.get(invocation.<Long>getArgument(0)));
+        // A tiny queue forces some batches onto the caller
+        streams = new NotificationStreams(60_000, 20);
+        notificationService = new NotificationService(userService, streams, 1, 2, INBOX_CAPACITY, 300, 3600, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationService.shutdown();
+        streams.shutdown();
+    }
+
+    @Test
+    void testNotifyUsers_DeliversToEveryRecipient() throws InterruptedException {
+        long[] recipients = students.keySet().stream().mapToLong(Long::longValue).toArray();
+
+        NotificationDelivery delivery = notificationService.notifyUsers(
+                NotificationService.courseTopic("C1"), recipients, "The course has been updated.");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!delivery.isComplete() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(delivery.isComplete());
+        assertEquals(STUDENTS, delivery.getDelivered());
+        assertSame(delivery, notificationService.getDelivery(delivery.getId()));
+        students.keySet().forEach(id -> assertEquals(1, notificationService.getNotifications(id, false).size()));
+        assertEquals(0L, notificationService.getDeliveryMetrics().get("pendingRecipients"));
+    }
+
+    @Test
+    void testNotifyUsers_FailedSendsAreCountedAndTheDeliveryStillCompletes() throws InterruptedException {
+        when(userService.getUserById(0L)).thenThrow(new IllegalStateException("user store unavailable"));
+        long[] recipients = new long[STUDENTS + 8];
+        for (int i = 0; i < STUDENTS; i++) {
+            recipients[i + i / 125 + 1] = i + 1; // a failing id at the head of every batch
+        }
+
+        NotificationDelivery delivery = notificationService.notifyUsers(
+                NotificationService.courseTopic("C1"), recipients, "The course has been updated.");
+        NotificationDelivery next = notificationService.notifyUsers(
+                NotificationService.courseTopic("C1"), new long[]{1L, 2L}, "And again.");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!(delivery.isComplete() && next.isComplete()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(delivery.isComplete());
+        assertEquals(STUDENTS, delivery.getDelivered());
+        assertEquals(8, delivery.getFailed());
+        assertTrue(next.isComplete(), "the workers survive a failing send");
+        assertEquals(2, next.getDelivered());
+        assertEquals(0L, notificationService.getDeliveryMetrics().get("pendingRecipients"));
+        assertEquals(8L, notificationService.getDeliveryMetrics().get("failedRecipients"));
+    }
+
+    @Test
+    void testBroadcast_MergesIntoFeedOfStudentsEnrolledAtTheTime() {
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        for (long id = 1; id <= 2; id++) {
+            roster.add(id);
+            notificationService.subscribe(id, topic);
+        }
+        notificationService.notifyUser(1L, "Welcome");
+        NotificationDelivery delivery = notificationService.broadcast(topic, "updated", roster, "The course has been updated.");
+        roster.add(3L);
+        notificationService.subscribe(3L, topic);
+
+        List<Notification> feed = notificationService.getNotifications(1L, false);
+        assertEquals(List.of("Welcome", "The course has been updated."),
+                feed.stream().map(Notification::getMessage).toList());
+        assertTrue(delivery.isComplete());
+        assertEquals(1, notificationService.getNotifications(2L, true).size());
+        assertTrue(notificationService.getNotifications(3L, false).isEmpty());
+
+        String broadcastId = feed.get(1).getId();
+        assertEquals(1, notificationService.markNotificationAsRead(2L, broadcastId));
+        assertEquals(0, notificationService.markNotificationAsRead(3L, broadcastId));
+        assertTrue(notificationService.getNotifications(2L, true).isEmpty());
+        assertEquals(2, notificationService.getNotifications(1L, true).size()); // read state is per student
+    }
+
+    @Test
+    void testBroadcast_PushesToOpenStreamsThroughTheDeliveryWorkers() throws InterruptedException {
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        for (long id = 1; id <= 3; id++) {
+            roster.add(id);
+            notificationService.subscribe(id, topic);
+        }
+        notificationService.openStream(1L, null);
+        notificationService.openStream(2L, null);
+        notificationService.openStream(4L, null); // connected, but not on the roster
+        notificationService.openStream(5L, null);
+        roster.add(5L);
+        notificationService.subscribe(5L, topic); // enrolled while connected
+
+        NotificationDelivery delivery = notificationService.broadcast(topic, "updated", roster, "The course has been updated.");
+        assertEquals(3, delivery.getRecipients());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!delivery.isComplete() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(delivery.isComplete());
+        assertEquals(3, delivery.getDelivered());
+        assertEquals(1, notificationService.getNotifications(3L, false).size(), "the feed does not wait for pushes");
+
+        notificationService.dropTopic(topic, roster);
+        assertEquals(0, notificationService.broadcast(topic, "deleted", roster, "Gone.").getRecipients());
+    }
+
+    @Test
+    void testInbox_EvictsOldestAndKeepsUnreadCount() {
+        for (int i = 1; i <= 5; i++) {
+            notificationService.notifyUser(1L, "Message " + i);
+        }
+        List<Notification> feed = notificationService.getNotifications(1L, false);
+        assertEquals(List.of("Message 3", "Message 4", "Message 5"),
+                feed.stream().map(Notification::getMessage).toList());
+        assertEquals(3, notificationService.getUnreadCount(1L));
+
+        assertEquals(1, notificationService.markNotificationAsRead(1L, feed.get(0).getId()));
+        assertEquals(2, notificationService.getUnreadCount(1L));
+        notificationService.notifyUser(1L, "Message 6"); // evicts the read "Message 3"
+        assertEquals(3, notificationService.getUnreadCount(1L));
+        assertEquals(0, notificationService.markNotificationAsRead(1L, feed.get(0).getId()));
+
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        roster.add(1L);
+        notificationService.subscribe(1L, topic);
+        notificationService.broadcast(topic, "updated", roster, "The course has been updated.");
+        notificationService.broadcast(topic, "deleted", roster, "The course has been deleted.");
+        assertEquals(5, notificationService.getUnreadCount(1L));
+        String broadcastId = notificationService.getNotifications(1L, false).get(3).getId();
+        notificationService.markNotificationAsRead(1L, broadcastId);
+        notificationService.markNotificationAsRead(1L, broadcastId);
+        assertEquals(4, notificationService.getUnreadCount(1L));
+        assertEquals(-1, notificationService.getUnreadCount(-5L));
+    }
+
+    @Test
+    void testCursorPagingAndMarkAllReadUpToCursor() {
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        roster.add(1L);
+        notificationService.subscribe(1L, topic);
+        notificationService.notifyUser(1L, "Message 1");
+        notificationService.broadcast(topic, null, roster, "Broadcast 2");
+        notificationService.notifyUser(1L, "Message 3");
+        notificationService.broadcast(topic, null, roster, "Broadcast 4");
+
+        List<Notification> first = notificationService.getNotifications(1L, false, -1, 3);
+        assertEquals(List.of("Message 1", "Broadcast 2", "Message 3"),
+                first.stream().map(Notification::getMessage).toList());
+        long cursor = Long.parseLong(first.get(2).getId());
+        assertEquals(List.of("Broadcast 4"), notificationService.getNotifications(1L, false, cursor, 3)
+                .stream().map(Notification::getMessage).toList());
+
+        notificationService.markAllAsRead(1L, Long.parseLong(first.get(1).getId()));
+        assertEquals(2, notificationService.getUnreadCount(1L));
+        assertEquals(List.of("Message 3", "Broadcast 4"), notificationService.getNotifications(1L, true)
+                .stream().map(Notification::getMessage).toList());
+
+        List<String> remaining = notificationService.getNotifications(1L, true).stream().map(Notification::getId).toList();
+        assertEquals(2, notificationService.markNotificationsAsRead(1L, remaining));
+        assertEquals(0, notificationService.getUnreadCount(1L));
+
+        notificationService.notifyUser(1L, "Message 5");
+        notificationService.markAllAsRead(1L, null);
+        assertEquals(0, notificationService.getUnreadCount(1L));
+        assertTrue(notificationService.getNotifications(1L, true).isEmpty());
+
+        long readUpTo = notificationService.markAllAsRead(1L, Long.MAX_VALUE);
+        assertTrue(readUpTo < Long.MAX_VALUE, "the cursor is clamped to the latest issued id");
+        notificationService.notifyUser(1L, "Message 6");
+        notificationService.broadcast(topic, null, roster, "Broadcast 7");
+        assertEquals(2, notificationService.getUnreadCount(1L));
+        assertEquals(List.of("Message 6", "Broadcast 7"), notificationService.getNotifications(1L, true)
+                .stream().map(Notification::getMessage).toList());
+    }
+
+    @Test
+    void testCoalescing_SupersedesUnreadEventsAndBuildsDigests() {
+        notificationService.notifyUser(1L, "C1:enrollments", "A new student has enrolled in your course: Java");
+        notificationService.notifyUser(1L, "C1:enrollments", "A new student has enrolled in your course: Java");
+        assertEquals(1, notificationService.getNotifications(1L, false).size());
+
+        notificationService.markAllAsRead(1L, null);
+        notificationService.notifyUser(1L, "C1:enrollments", "A new student has enrolled in your course: Java");
+        assertEquals(2, notificationService.getNotifications(1L, false).size()); // the first one was already read
+
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        roster.add(2L);
+        notificationService.subscribe(2L, topic);
+        notificationService.broadcast(topic, "updated", roster, "The course Java has been updated.");
+        notificationService.broadcast(topic, "updated", roster, "The course Java 21 has been updated.");
+        notificationService.broadcast(topic, "deleted", roster, "The course Java 21 has been deleted.");
+        assertEquals(List.of("The course Java 21 has been updated.", "The course Java 21 has been deleted."),
+                notificationService.getNotifications(2L, false).stream().map(Notification::getMessage).toList());
+
+        notificationService.setDigest(3L, true);
+        notificationService.notifyUser(3L, "First");
+        notificationService.notifyUser(3L, "Second");
+        assertTrue(notificationService.getNotifications(3L, false).isEmpty());
+        notificationService.flushDigests();
+        List<Notification> digest = notificationService.getNotifications(3L, false);
+        assertEquals(1, digest.size());
+        assertTrue(digest.get(0).getMessage().contains("Second"));
+
+        Map<String, Object> metrics = notificationService.getDeliveryMetrics();
+        assertEquals(8L, metrics.get("requestedNotifications"));
+        assertEquals(2L, metrics.get("coalescedNotifications"));
+        assertEquals(2L, metrics.get("digestedNotifications"));
+    }
+
+    @Test
+    void testCoalescing_ReadersOfTheSupersededBroadcastGetTheUpdateAsNew() {
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        roster.add(1L);
+        roster.add(2L);
+        notificationService.subscribe(1L, topic);
+        notificationService.subscribe(2L, topic);
+
+        notificationService.broadcast(topic, "updated", roster, "The course Java has been updated.");
+        String firstId = notificationService.getNotifications(1L, false).get(0).getId();
+        assertEquals(1, notificationService.markNotificationAsRead(1L, firstId));
+        notificationService.broadcast(topic, "updated", roster, "The course Java 21 has been updated.");
+
+        // The reader keeps the old one as read and gets the update under a new id
+        List<Notification> readerFeed = notificationService.getNotifications(1L, false);
+        assertEquals(2, readerFeed.size());
+        assertTrue(readerFeed.get(0).isRead());
+        assertEquals("The course Java has been updated.", readerFeed.get(0).getMessage());
+        assertNotEquals(firstId, readerFeed.get(1).getId());
+        assertEquals(1, notificationService.getUnreadCount(1L));
+        assertEquals(1, notificationService.getNotifications(1L, false, Long.parseLong(firstId), 10).size());
+
+        // Anyone who had not read it sees just the latest text
+        assertEquals(List.of("The course Java 21 has been updated."),
+                notificationService.getNotifications(2L, false).stream().map(Notification::getMessage).toList());
+        assertEquals(1, notificationService.getUnreadCount(2L));
+    }
+
+    @Test
+    void testBroadcasts_KeepOnlyTheLatestPerTopicAndGoWithTheirTopic() {
+        String topic = NotificationService.courseTopic("C1");
+        EnrollmentRoster roster = new EnrollmentRoster();
+        roster.add(1L);
+        notificationService.subscribe(1L, topic);
+        notificationService.broadcast(topic, "lesson", roster, "Lesson 1 is out.");
+        String evictedId = notificationService.getNotifications(1L, false).get(0).getId();
+        assertEquals(1, notificationService.markNotificationAsRead(1L, evictedId));
+        for (int lesson = 2; lesson <= INBOX_CAPACITY + 1; lesson++) {
+            notificationService.broadcast(topic, "lesson" + lesson, roster, "Lesson " + lesson + " is out.");
+        }
+
+        List<Notification> feed = notificationService.getNotifications(1L, false);
+        assertEquals(INBOX_CAPACITY, feed.size());
+        assertEquals("Lesson 2 is out.", feed.get(0).getMessage());
+        assertEquals(INBOX_CAPACITY, notificationService.getUnreadCount(1L));
+        assertEquals(0, notificationService.markNotificationAsRead(1L, evictedId));
+        assertEquals(INBOX_CAPACITY, notificationService.getDeliveryMetrics().get("broadcasts"));
+
+        notificationService.dropTopic(topic, roster);
+        assertTrue(notificationService.getNotifications(1L, false).isEmpty());
+        assertEquals(0, notificationService.getUnreadCount(1L));
+        assertEquals(0, notificationService.getDeliveryMetrics().get("broadcasts"));
+    }
+}
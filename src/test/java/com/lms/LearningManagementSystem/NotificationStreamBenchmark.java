@@ -0,0 +1,159 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.User.Student;
+import com.lms.LearningManagementSystem.Service.NotificationService;
+import com.lms.LearningManagementSystem.Service.NotificationStreams;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local load test for GET /notifications/{userId}/stream: boots the application, opens one SSE
+ * stream per simulated student and pushes notifications through NotificationService.notifyUser.
+ * Reports how long it took to open the streams, heap per open stream, publish-to-receive latency of
+ * a single notification on an otherwise idle node, and fan-out throughput when every stream gets one.
+ * Not picked up by surefire; run the main method directly, optionally with the number of streams
+ * (default 5,000; client and server share this JVM, so each stream costs two file descriptors).
+ */
+public class NotificationStreamBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int SINGLE_SAMPLES = 200;
+    private static final long FIRST_STUDENT_ID = 1_000_000L;
+    private static final Pattern SENT_AT = Pattern.compile("sent=(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        int streams = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        ConfigurableApplicationContext context = SpringApplication.run(LearningManagementSystemApplication.class,
+                "--server.port=0", "--server.tomcat.max-connections=" + (streams + 100),
+                "--server.tomcat.accept-count=" + streams, "--logging.level.root=WARN");
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        NotificationService notificationService = context.getBean(NotificationService.class);
+        NotificationStreams registry = context.getBean(NotificationStreams.class);
+
+        for (int i = 0; i < streams; i++) {
+            Student student = new Student();
+            student.setId(FIRST_STUDENT_ID + i);
+            student.setName("Student " + i);
+            UserService.userStore.put(student.getId(), student);
+        }
+
+        long[] latencies = new long[SINGLE_SAMPLES + streams * ROUNDS];
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(streams);
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long openStart = System.nanoTime();
+        for (int i = 0; i < streams; i++) {
+            long userId = FIRST_STUDENT_ID + i;
+            readers.execute(() -> readStream(port, userId, connected, received, latencies));
+        }
+        if (!connected.await(2, TimeUnit.MINUTES)) {
+            System.out.printf("only %,d of %,d streams connected%n", streams - connected.getCount(), streams);
+        }
+        long openMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openStart);
+        System.gc();
+        long heapPerStream = (usedHeap() - heapBefore) / streams;
+        System.out.printf("streams=%,d  opened in %,d ms  heap/stream (client+server)=%,d B  %s%n",
+                streams, openMillis, heapPerStream, registry.getMetrics());
+
+        // One notification at a time: delivery latency with no queueing
+        for (int i = 0; i < SINGLE_SAMPLES; i++) {
+            int expected = received.get() + 1;
+            notificationService.notifyUser(FIRST_STUDENT_ID + ThreadLocalRandom.current().nextInt(streams),
+                    "Benchmark sent=" + System.nanoTime());
+            awaitReceived(received, expected);
+        }
+        report("single", Arrays.copyOfRange(latencies, 0, Math.min(received.get(), SINGLE_SAMPLES)), 0);
+
+        // Every stream at once: latency includes waiting behind the rest of the round
+        for (int round = 0; round < ROUNDS; round++) {
+            int from = received.get();
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < streams; i++) {
+                notificationService.notifyUser(FIRST_STUDENT_ID + i, "Benchmark sent=" + System.nanoTime());
+            }
+            awaitReceived(received, from + streams);
+            long roundNanos = System.nanoTime() - roundStart;
+            int to = Math.min(received.get(), latencies.length);
+            report("round " + (round + 1), Arrays.copyOfRange(latencies, from, to), roundNanos);
+        }
+
+        readers.shutdownNow();
+        context.close();
+        System.exit(0);
+    }
+
+    // A bare socket per client keeps the client side of the measurement as thin as possible
+    private static void readStream(int port, long userId, CountDownLatch connected,
+                                   AtomicInteger received, long[] latencies) {
+        try (Socket socket = new Socket("localhost", port);
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 1024)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /notifications/" + userId + "/stream HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            boolean open = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!open && line.startsWith(":connected")) {
+                    open = true;
+                    connected.countDown();
+                }
+                Matcher matcher = SENT_AT.matcher(line);
+                if (matcher.find()) {
+                    long latency = System.nanoTime() - Long.parseLong(matcher.group(1));
+                    int slot = received.getAndIncrement();
+                    if (slot < latencies.length) {
+                        latencies[slot] = latency;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            connected.countDown();
+        }
+    }
+
+    private static void awaitReceived(AtomicInteger received, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (received.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+            Thread.sleep(0, 100_000);
+        }
+    }
+
+    private static void report(String label, long[] sample, long elapsedNanos) {
+        Arrays.sort(sample);
+        System.out.printf("%-8s delivered=%,6d  latency p50=%7.2f ms  p99=%7.2f ms  max=%7.2f ms%s%n",
+                label, sample.length, percentile(sample, 0.50), percentile(sample, 0.99), percentile(sample, 1.0),
+                elapsedNanos == 0 ? "" : String.format("  throughput=%,.0f events/s",
+                        sample.length / (elapsedNanos / 1e9)));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
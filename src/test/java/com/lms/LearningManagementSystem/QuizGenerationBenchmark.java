@@ -0,0 +1,49 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+import com.lms.LearningManagementSystem.Service.QuestionSampler;
+
+import java.util.*;
+
+/**
+ * Draws a 20-question quiz from banks of 10k, 100k and 1M questions, the old way (shuffle the whole
+ * bank, take the first 20) and with QuestionSampler's partial Fisher-Yates over a shared snapshot.
+ * Reports microseconds per quiz. Not picked up by surefire; run the main method directly.
+ */
+public class QuizGenerationBenchmark {
+
+    private static final int[] BANK_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int QUIZ_SIZE = 20;
+
+    public static void main(String[] args) {
+        for (int size : BANK_SIZES) {
+            Question[] bank = new Question[size];
+            for (int i = 0; i < size; i++) {
+                bank[i] = new Question((long) i, "Question " + i, List.of("a", "b"), "a");
+            }
+            List<Question> shared = new ArrayList<>(Arrays.asList(bank));
+            int shuffles = Math.max(20, 2_000_000 / size);
+            int samples = 500_000;
+            long sink = 0;
+            double shuffleMicros = 0;
+            double sampleMicros = 0;
+            for (int round = 0; round < 2; round++) { // the first round is warm-up
+                long start = System.nanoTime();
+                for (int i = 0; i < shuffles; i++) {
+                    Collections.shuffle(shared);
+                    sink += shared.get(QUIZ_SIZE - 1).getId();
+                }
+                shuffleMicros = (System.nanoTime() - start) / 1e3 / shuffles;
+
+                SplittableRandom random = new SplittableRandom(round);
+                start = System.nanoTime();
+                for (int i = 0; i < samples; i++) {
+                    sink += QuestionSampler.sample(bank, QUIZ_SIZE, random)[QUIZ_SIZE - 1].getId();
+                }
+                sampleMicros = (System.nanoTime() - start) / 1e3 / samples;
+            }
+            System.out.printf("bank=%,9d  shuffle=%,10.2f us/quiz  partial Fisher-Yates=%6.2f us/quiz  (sink=%d)%n",
+                    size, shuffleMicros, sampleMicros, sink);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.User.Instructor;
+import com.lms.LearningManagementSystem.Security.SessionContext;
+import com.lms.LearningManagementSystem.Security.SessionTokenFilter;
+import com.lms.LearningManagementSystem.Security.SessionTokens;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Measures what a session token costs per request: SessionTokens.verify on its own, and the whole
+ * SessionTokenFilter pass (header parsing, verification, setting and clearing the principal), with
+ * a thousand tokens revoked so the revocation map is not empty. Not picked up by surefire; run the
+ * main method directly, optionally with the number of verifications (default 2M).
+ */
+public class SessionTokenBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        SessionTokens sessionTokens = new SessionTokens("benchmark-secret", 480);
+        Instructor instructor = new Instructor();
+        instructor.setId(42L);
+        for (int i = 0; i < 1_000; i++) {
+            sessionTokens.revoke(sessionTokens.issue(instructor));
+        }
+        String token = sessionTokens.issue(instructor);
+        System.out.printf("token length=%d chars  %s%n", token.length(), sessionTokens.getMetrics());
+
+        long sink = 0;
+        for (int round = 0; round < 2; round++) { // the first round is warm-up
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += sessionTokens.verify(token).userId();
+            }
+            long verifyNanos = System.nanoTime() - start;
+
+            SessionTokenFilter filter = new SessionTokenFilter(sessionTokens);
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("Authorization", SessionTokenFilter.BEARER + token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            long[] seen = new long[1];
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                filter.doFilter(request, response, (req, res) -> seen[0] += SessionContext.current().userId());
+                request.removeAttribute(SessionTokenFilter.class.getName() + ".FILTERED"); // allow the next pass
+            }
+            long filterNanos = System.nanoTime() - start;
+            sink += seen[0];
+
+            System.out.printf("round %d  verify=%6.0f ns/request  filter=%6.0f ns/request  (sink=%d)%n",
+                    round + 1, (double) verifyNanos / iterations, (double) filterNanos / iterations, sink);
+        }
+    }
+}
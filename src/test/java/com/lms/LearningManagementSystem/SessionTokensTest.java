@@ -0,0 +1,117 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Controller.CourseController;
+import com.lms.LearningManagementSystem.Model.User.Admin;
+import com.lms.LearningManagementSystem.Model.User.Instructor;
+import com.lms.LearningManagementSystem.Model.User.Student;
+import com.lms.LearningManagementSystem.Security.AccessDeniedException;
+import com.lms.LearningManagementSystem.Security.SessionContext;
+import com.lms.LearningManagementSystem.Security.SessionPrincipal;
+import com.lms.LearningManagementSystem.Security.SessionTokenFilter;
+import com.lms.LearningManagementSystem.Security.SessionTokens;
+import com.lms.LearningManagementSystem.Service.CourseService;
+import com.lms.LearningManagementSystem.Service.UserService.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SessionTokensTest {
+
+    private static final Long INSTRUCTOR_ID = 4_000L; // deliberately not in the user store
+
+    private SessionTokens sessionTokens;
+    private Instructor instructor;
+
+    @BeforeEach
+    void setUp() {
+        sessionTokens = new SessionTokens("test-secret", 60);
+        instructor = new Instructor();
+        instructor.setId(INSTRUCTOR_ID);
+    }
+
+    @Test
+    void testVerify_RoundTripAndRejectsTamperedOrRevoked() {
+        String token = sessionTokens.issue(instructor);
+        SessionPrincipal principal = sessionTokens.verify(token);
+        assertNotNull(principal);
+        assertEquals(INSTRUCTOR_ID, principal.userId());
+        assertTrue(principal.hasRole("Instructor"));
+
+        Student student = new Student();
+        student.setId(INSTRUCTOR_ID);
+        String otherPayload = sessionTokens.issue(student).split("\\.")[0];
+        assertNull(sessionTokens.verify(otherPayload + token.substring(token.indexOf('.'))));
+        assertNull(sessionTokens.verify(token + "x"));
+        assertNull(sessionTokens.verify("garbage"));
+        assertNull(new SessionTokens("another-secret", 60).verify(token));
+        assertNull(new SessionTokens("test-secret", 0).verify(token), "expired");
+
+        String second = sessionTokens.issue(instructor);
+        assertTrue(sessionTokens.revoke(token));
+        assertFalse(sessionTokens.revoke(token));
+        assertNull(sessionTokens.verify(token));
+        assertNotNull(sessionTokens.verify(second));
+
+        sessionTokens.revokeUser(INSTRUCTOR_ID);
+        assertNull(sessionTokens.verify(second));
+    }
+
+    @Test
+    void testFilter_PrincipalStandsInForStoreLookup() throws Exception {
+        SessionTokenFilter filter = new SessionTokenFilter(sessionTokens);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + sessionTokens.issue(instructor));
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            assertEquals(INSTRUCTOR_ID, SessionContext.current().userId());
+            UserService.requireRole(INSTRUCTOR_ID, Instructor.class, "not an instructor");
+            // The principal may not act as someone else, nor in a role it does not hold
+            assertThrows(AccessDeniedException.class,
+                    () -> UserService.requireRole(INSTRUCTOR_ID + 1, Instructor.class, "not an instructor"));
+            assertThrows(AccessDeniedException.class,
+                    () -> UserService.requireRole(INSTRUCTOR_ID, Admin.class, "not an admin"));
+        });
+        assertNull(SessionContext.current());
+
+        // Without a token the user is looked up, and this one is not registered
+        assertThrows(IllegalArgumentException.class,
+                () -> UserService.requireRole(INSTRUCTOR_ID, Instructor.class, "not an instructor"));
+
+        MockHttpServletRequest forged = new MockHttpServletRequest();
+        forged.addHeader("Authorization", "Bearer not.valid");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(forged, rejected, (req, res) -> fail("chain must not run"));
+        assertEquals(401, rejected.getStatus());
+    }
+
+    @Test
+    void testAdminRoute_TokenForOneAdminCannotActAsAnother() throws Exception {
+        Admin admin = new Admin();
+        admin.setId(5_000L);
+        CourseService courseService = mock(CourseService.class);
+        MockMvc mvc = MockMvcBuilders
+                .standaloneSetup(new CourseController(courseService))
+                .addFilters(new SessionTokenFilter(sessionTokens))
+                .build();
+        String token = "Bearer " + sessionTokens.issue(admin);
+
+        // Admin 5000's token with admin 5001's id in the path
+        mvc.perform(put("/courses/5001/C1/update").header("Authorization", token)
+                        .param("title", "T").param("description", "D").param("duration", "1"))
+                .andExpect(status().isForbidden());
+        // An instructor's token on an admin route, with the instructor's own id
+        mvc.perform(put("/courses/" + INSTRUCTOR_ID + "/C1/update")
+                        .header("Authorization", "Bearer " + sessionTokens.issue(instructor))
+                        .param("title", "T").param("description", "D").param("duration", "1"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(courseService);
+    }
+}
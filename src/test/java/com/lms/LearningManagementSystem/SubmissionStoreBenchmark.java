@@ -0,0 +1,83 @@
+package com.lms.LearningManagementSystem;
+
+import com.lms.LearningManagementSystem.Model.Assessment.AnswerKey;
+import com.lms.LearningManagementSystem.Model.Assessment.Question;
+import com.lms.LearningManagementSystem.Model.Assessment.Quiz;
+import com.lms.LearningManagementSystem.Service.AssessmentService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 10,000 students (by default) submit the same 50-question quiz at once through
+ * AssessmentService.SubmitQuiz, from a pool of threads. Reports submissions per second next to the
+ * same encoded writes into one synchronized map, as a single-lock baseline; the gap only shows on a
+ * machine with several cores. Each stored submission holds one byte per question. Not picked up by
+ * surefire; run the main method directly, optionally with the number of students
+ * and threads (default 10,000 and 16).
+ */
+public class SubmissionStoreBenchmark {
+
+    private static final int QUIZ_SIZE = 50;
+    private static final int ROUNDS = 5;
+    private static final List<String> OPTIONS = List.of("a", "b", "c", "d");
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        List<Question> bank = new ArrayList<>();
+        for (long id = 1; id <= QUIZ_SIZE; id++) {
+            bank.add(new Question(id, "Question " + id, OPTIONS, "a"));
+        }
+        Random random = new Random(7);
+        List<Map<String, String>> answers = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            Map<String, String> submission = new HashMap<>();
+            for (long id = 1; id <= QUIZ_SIZE; id++) {
+                submission.put(Long.toString(id), OPTIONS.get(random.nextInt(4)));
+            }
+            answers.add(submission);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            AssessmentService assessmentService = new AssessmentService();
+            assessmentService.addQuestions(bank);
+            Quiz quiz = assessmentService.createQuiz("Midterm", QUIZ_SIZE, QUIZ_SIZE);
+            double store = run(pool, students, threads,
+                    student -> assessmentService.SubmitQuiz(quiz.getId(), (long) student, answers.get(student)));
+
+            // Same encoding, but every write takes one lock
+            AnswerKey key = new AnswerKey(bank);
+            Map<Long, byte[]> locked = Collections.synchronizedMap(new HashMap<>());
+            double baseline = run(pool, students, threads,
+                    student -> locked.put((long) student, key.encode(answers.get(student))));
+            System.out.printf("round %d  students=%,d threads=%d  submission store=%,10.0f subs/s"
+                    + "  single-lock map=%,10.0f subs/s  (%d stored)%n",
+                    round + 1, students, threads, store, baseline, locked.size());
+        }
+        pool.shutdown();
+    }
+
+    private static double run(ExecutorService pool, int students, int threads, java.util.function.IntConsumer submit)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int student = first; student < students; student += threads) {
+                    submit.accept(student);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return students / ((System.nanoTime() - begin) / 1e9);
+    }
+}
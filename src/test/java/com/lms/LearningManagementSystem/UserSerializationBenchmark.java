@@ -0,0 +1,58 @@
+package com.lms.LearningManagementSystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.LearningManagementSystem.Model.User.Student;
+import com.lms.LearningManagementSystem.Model.User.User;
+import com.lms.LearningManagementSystem.Model.User.UserFields;
+import com.lms.LearningManagementSystem.Model.User.UserSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Serializes a population of students, each with a handful of bookmarks, the way GET /api/users
+ * answers: full User objects (the old response), UserSummary DTOs (the default now), and a
+ * ?fields=id,name,role projection. Reports payload size and serialization time for each. Not
+ * picked up by surefire; run the main method directly, optionally with the number of users
+ * (default 100,000).
+ */
+public class UserSerializationBenchmark {
+
+    private static final int BOOKMARKS = 10;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student();
+            student.setId((long) i);
+            student.setName("Student " + i);
+            student.setEmail("student" + i + "@example.com");
+            student.setPassword("secret" + i);
+            for (int b = 0; b < BOOKMARKS; b++) {
+                student.getBookmarkedCourses().add("course-" + ((i + b) % 500));
+            }
+            users.add(student);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> fields = UserFields.parse("id,name,role");
+
+        run(mapper, users, "full User", user -> user);
+        run(mapper, users, "summary", UserSummary::from);
+        run(mapper, users, "fields=id,name,role", user -> UserFields.project(user, fields));
+    }
+
+    private static void run(ObjectMapper mapper, List<User> users, String label, Function<User, Object> view) throws Exception {
+        int bytes = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            bytes = mapper.writeValueAsBytes(users.stream().map(view).toList()).length;
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-20s payload=%,12d B  (%,5d B/user)  best of %d=%,8.1f ms%n",
+                label, bytes, bytes / users.size(), ROUNDS, best / 1e6);
+    }
+}
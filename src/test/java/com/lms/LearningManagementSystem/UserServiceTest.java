@@ -4,13 +4,19 @@ import com.lms.LearningManagementSystem.Model.User.*;
 import com.lms.LearningManagementSystem.Service.CourseService;
 import com.lms.LearningManagementSystem.Service.NotificationService;
 import com.lms.LearningManagementSystem.Service.AssessmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.LearningManagementSystem.Model.User.UserFields;
+import com.lms.LearningManagementSystem.Service.UserService.UserImporter;
 import com.lms.LearningManagementSystem.Service.UserService.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.List;
+import java.util.Map;
 
 class UserServiceTest {
 
@@ -124,5 +130,117 @@ class UserServiceTest {
 		assertTrue(users.get(0) instanceof Student, "The user should be a student");
 	}
 
+	@Test
+	void testEmailIndex_CaseInsensitiveLoginAndUniqueness() {
+		User newUser = new User();
+		newUser.setName("Index User");
+		newUser.setEmail("Index.User@Example.com");
+		newUser.setPassword("password");
+		newUser.setRole("student");
+		User added = userService.addUser(newUser);
+
+		assertSame(added, userService.authenticate("index.user@example.com", "password"));
+		assertNull(userService.authenticate("index.user@example.com", "wrong"));
+
+		User duplicate = new User();
+		duplicate.setEmail("INDEX.USER@example.com");
+		duplicate.setPassword("password");
+		duplicate.setRole("instructor");
+		assertThrows(IllegalArgumentException.class, () -> userService.addUser(duplicate));
+
+		User renamed = new Student();
+		renamed.setName("Index User");
+		renamed.setEmail("renamed@example.com");
+		renamed.setPassword("password");
+		userService.updateUser(renamed, added.getId());
+		assertNull(userService.authenticate("index.user@example.com", "password"));
+		assertSame(renamed, userService.authenticate("Renamed@example.com", "password"));
+
+		userService.deleteUser(added.getId());
+		assertNull(userService.authenticate("renamed@example.com", "password"));
+	}
+
+	@Test
+	void testListUsers_PagesThroughRoleIndexInIdOrder() {
+		for (long id = 700; id < 705; id++) {
+			Instructor instructor = new Instructor();
+			instructor.setId(id);
+			instructor.setName("Instructor " + id);
+			UserService.userStore.put(id, instructor);
+		}
+		UserService.userStore.remove(702L);
+
+		List<User> all = userService.getUsersByRole("INSTRUCTOR");
+		assertTrue(all.stream().allMatch(user -> user instanceof Instructor));
+		assertTrue(all.stream().noneMatch(user -> user.getId() == 702L));
+
+		List<User> firstPage = userService.listUsers("instructor", 0, 2);
+		List<User> secondPage = userService.listUsers("instructor", 1, 2);
+		assertEquals(all.subList(0, 2), firstPage);
+		assertEquals(all.subList(2, Math.min(4, all.size())), secondPage);
+		assertThrows(IllegalArgumentException.class, () -> userService.listUsers("teacher", 0, 2));
+
+		// The cursor resumes right after the last id of the previous page
+		assertEquals(secondPage, userService.listUsersAfter("instructor", firstPage.get(1).getId(), 2));
+		assertEquals(List.of(701L, 703L), userService.listUsersAfter("instructor", 700L, 2).stream()
+				.filter(user -> user.getId() >= 700L).map(User::getId).toList());
+
+		for (long id = 700; id < 705; id++) {
+			UserService.userStore.remove(id);
+		}
+	}
+
+	@Test
+	void testImportUsers_CsvReportsEveryRowAcrossBatches() throws Exception {
+		userService.reserveIds(10_000); // keep imported ids clear of the users seeded above
+		StringBuilder csv = new StringBuilder("Role,Email,Name,Password\n");
+		for (int i = 0; i < 300; i++) {
+			csv.append("student,import").append(i).append("@example.com,\"Student, No. ").append(i).append("\",pw\n");
+		}
+		csv.append("student,IMPORT7@example.com,Duplicate,pw\n");
+		csv.append("teacher,teacher@example.com,Bad Role,pw\n");
+		csv.append("student,\"broken@example.com,Broken,pw\n");
+
+		StringWriter report = new StringWriter();
+		Map<String, Object> summary = new UserImporter(userService, new ObjectMapper())
+				.importUsers(new StringReader(csv.toString()), UserImporter.Format.CSV, report);
+
+		assertEquals(303, summary.get("rows"));
+		assertEquals(300, summary.get("created"));
+		assertEquals(3, summary.get("rejected"));
+		String[] lines = report.toString().split("\n");
+		assertEquals(304, lines.length);
+		assertTrue(lines[0].startsWith("{\"row\":1,\"status\":\"created\""));
+		assertTrue(lines[300].startsWith("{\"row\":301,\"status\":\"rejected\""));
+		assertTrue(lines[302].contains("Unterminated"));
+
+		User imported = userService.findByEmail("import299@example.com");
+		assertTrue(imported instanceof Student);
+		assertEquals("Student, No. 299", imported.getName());
+		assertSame(imported, userService.authenticate("Import299@example.com", "pw"));
+
+		for (int i = 0; i < 300; i++) {
+			userService.deleteUser(userService.findByEmail("import" + i + "@example.com").getId());
+		}
+	}
 
+	@Test
+	void testUserFields_ProjectionAndHiddenPassword() throws Exception {
+		studentUser.getBookmarkedCourses().add("C1");
+		ObjectMapper mapper = new ObjectMapper();
+
+		String full = mapper.writeValueAsString(studentUser);
+		assertFalse(full.contains("password"), "password must never be serialized");
+		assertTrue(full.contains("bookmarkedCourses"));
+
+		assertEquals("{\"role\":\"student\",\"id\":2}",
+				mapper.writeValueAsString(UserFields.project(studentUser, UserFields.parse("role, id"))));
+		assertEquals("{\"bookmarkedCourses\":[\"C1\"]}",
+				mapper.writeValueAsString(UserFields.project(studentUser, UserFields.parse("bookmarkedCourses"))));
+		assertThrows(IllegalArgumentException.class, () -> UserFields.parse("id,password"));
+		assertThrows(IllegalArgumentException.class, () -> UserFields.parse(" , "));
+
+		User registered = mapper.readValue("{\"name\":\"N\",\"password\":\"pw\"}", User.class);
+		assertEquals("pw", registered.getPassword(), "password is still accepted on input");
+	}
 }